@@ -37,7 +37,8 @@ CREATE TABLE usuarios (
     password_hash VARCHAR(255) NOT NULL,
     email VARCHAR(120) UNIQUE,
     estado TINYINT DEFAULT 1,
-    fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Tabla de especialidades médicas: Cataloga las áreas de especialización
@@ -97,7 +98,8 @@ CREATE TABLE personas (
     departamento VARCHAR(100),
     email VARCHAR(120),
     fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (id_usuario) REFERENCES usuarios(id)
+    FOREIGN KEY (id_usuario) REFERENCES usuarios(id),
+    INDEX idx_persona_apellido_nombre (apellido, nombre)
 );
 
 -- Tabla de relación usuario-roles: Asigna múltiples roles a usuarios
@@ -162,10 +164,15 @@ CREATE TABLE citas (
     estado ENUM('Programada','Cancelada','Completada') DEFAULT 'Programada',
     motivo_consulta VARCHAR(255),
     fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    slot_activo DATETIME NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (paciente_id) REFERENCES pacientes(id),
     FOREIGN KEY (medico_id) REFERENCES medicos(id),
     FOREIGN KEY (consultorio_id) REFERENCES consultorios(id),
-    INDEX idx_cita_medico_fecha (medico_id, fecha_hora)
+    INDEX idx_cita_medico_fecha (medico_id, fecha_hora),
+    INDEX idx_cita_fecha (fecha_hora),
+    INDEX idx_cita_estado_fecha (estado, fecha_hora),
+    UNIQUE KEY uk_cita_medico_slot_activo (medico_id, slot_activo)
 );
 
 -- Tabla de historial médico: Registros clínicos de las consultas
@@ -222,7 +229,8 @@ INSERT INTO roles (nombre, descripcion) VALUES
 ('Cliente', 'Paciente con acceso a servicios'),
 ('Médico', 'Profesional que atiende pacientes'),
 ('Secretario', 'Gestiona horarios y citas'),
-('Proveedor', 'Maneja inventario de medicamentos');
+('Proveedor', 'Maneja inventario de medicamentos'),
+('Monitoreo', 'Lectura de métricas desde Prometheus');
 
 -- Insertar usuarios iniciales (contraseñas: password123)
 INSERT INTO usuarios (username, password_hash, email, estado) VALUES
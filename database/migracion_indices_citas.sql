@@ -0,0 +1,41 @@
+-- =====================================================
+-- MIGRACIÓN: ÍNDICES DE BÚSQUEDA DE PERSONAS Y CITAS
+-- Descripción: Crea en una base existente los índices idx_persona_apellido_nombre,
+-- idx_cita_fecha e idx_cita_estado_fecha de bd_.sql (búsqueda de pacientes por apellido
+-- y listados de citas por fecha y estado). Cada índice se crea solo si aún no existe,
+-- por lo que ejecutarla de nuevo no falla
+-- Ejecutar una sola vez, con la aplicación detenida
+-- =====================================================
+
+USE hospital_virtual;
+
+-- MySQL no admite CREATE INDEX IF NOT EXISTS: se consulta information_schema
+SET @sql = IF(
+    (SELECT COUNT(*) FROM information_schema.statistics
+     WHERE table_schema = DATABASE() AND table_name = 'personas'
+       AND index_name = 'idx_persona_apellido_nombre') = 0,
+    'CREATE INDEX idx_persona_apellido_nombre ON personas (apellido, nombre)',
+    'SELECT ''idx_persona_apellido_nombre ya existe''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = IF(
+    (SELECT COUNT(*) FROM information_schema.statistics
+     WHERE table_schema = DATABASE() AND table_name = 'citas'
+       AND index_name = 'idx_cita_fecha') = 0,
+    'CREATE INDEX idx_cita_fecha ON citas (fecha_hora)',
+    'SELECT ''idx_cita_fecha ya existe''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = IF(
+    (SELECT COUNT(*) FROM information_schema.statistics
+     WHERE table_schema = DATABASE() AND table_name = 'citas'
+       AND index_name = 'idx_cita_estado_fecha') = 0,
+    'CREATE INDEX idx_cita_estado_fecha ON citas (estado, fecha_hora)',
+    'SELECT ''idx_cita_estado_fecha ya existe''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,43 @@
+-- =====================================================
+-- MIGRACIÓN: HORARIO ÚNICO POR MÉDICO EN CITAS
+-- Descripción: Agrega slot_activo y version a la tabla citas de una base existente
+-- y crea la restricción uk_cita_medico_slot_activo (producción usa ddl-auto=validate)
+-- Ejecutar una sola vez, con la aplicación detenida
+-- =====================================================
+
+USE hospital_virtual;
+
+-- 1. Columnas nuevas
+ALTER TABLE citas
+    ADD COLUMN slot_activo DATETIME NULL,
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- 2. Inicio del intervalo de 30 minutos para las citas que ocupan horario (mismo cálculo que Cita.inicioSlot)
+UPDATE citas
+SET slot_activo = TIMESTAMPADD(SECOND, -(MINUTE(fecha_hora) % 30 * 60 + SECOND(fecha_hora)), fecha_hora),
+    version = 0
+WHERE UPPER(estado) IN ('PROGRAMADA', 'CONFIRMADA', 'EN_CURSO');
+
+UPDATE citas
+SET slot_activo = NULL,
+    version = 0
+WHERE UPPER(estado) NOT IN ('PROGRAMADA', 'CONFIRMADA', 'EN_CURSO');
+
+-- Citas activas fuera de la cuadrícula de 30 minutos: la aplicación ya no acepta esas horas y su intervalo
+-- no cubre toda la cita; conviene reprogramarlas
+SELECT id, medico_id, fecha_hora
+FROM citas
+WHERE slot_activo IS NOT NULL
+  AND slot_activo <> fecha_hora;
+
+-- Citas activas que comparten médico y horario; deben cancelarse o reprogramarse antes del paso 3,
+-- que de lo contrario falla por clave duplicada
+SELECT medico_id, slot_activo, COUNT(*) AS citas, GROUP_CONCAT(id ORDER BY id) AS ids
+FROM citas
+WHERE slot_activo IS NOT NULL
+GROUP BY medico_id, slot_activo
+HAVING COUNT(*) > 1;
+
+-- 3. Restricción de un solo turno activo por médico y horario
+ALTER TABLE citas
+    ADD CONSTRAINT uk_cita_medico_slot_activo UNIQUE (medico_id, slot_activo);
@@ -0,0 +1,12 @@
+-- =====================================================
+-- MIGRACIÓN: VERSIÓN DE USUARIOS
+-- Descripción: Agrega la columna version a la tabla usuarios de una base existente
+-- (producción usa ddl-auto=validate). Con ella, un cambio solo en los roles de un
+-- usuario actualiza su fila e invalida su entrada en la caché de autenticación
+-- Ejecutar una sola vez, con la aplicación detenida
+-- =====================================================
+
+USE hospital_virtual;
+
+ALTER TABLE usuarios
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
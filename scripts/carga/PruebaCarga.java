@@ -0,0 +1,418 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga de Sana Corp
+ * Inicia sesión con un usuario, lanza usuarios concurrentes durante el tiempo configurado y muestra
+ * el rendimiento (peticiones por segundo) y la latencia p50/p99 de cada paso.
+ *
+ * Modo rutas (por defecto): peticiones GET a las rutas indicadas. Sirve para comparar la ejecución
+ * con hilos de plataforma y con hilos virtuales (perfil 'virtual').
+ *
+ * Escenario 'secretario': cada usuario repite el flujo de recepción sobre los datos del perfil 'generador'
+ * (dashboard, búsqueda de paciente, primeros horarios libres de una especialidad, reserva y confirmación).
+ *
+ * Se ejecuta sin compilar (Java 17 o superior):
+ *   java scripts/carga/PruebaCarga.java --url http://localhost:8082 --usuario secretario01 --clave password123 \
+ *        --concurrencia 200 --duracion 60 --ruta /secretario/citas --ruta /secretario/dashboard
+ *   java scripts/carga/PruebaCarga.java --usuario secretario01 --clave password123 \
+ *        --escenario secretario --datos target/generador/datos.properties
+ *
+ * La última línea de la salida es un JSON con los resultados para guardarlos y compararlos entre ejecuciones.
+ */
+public class PruebaCarga {
+
+    // Prefijos de apellidos usados por el generador de datos
+    private static final String[] BUSQUEDAS = {
+        "quis", "flor", "sanc", "rodr", "garc", "roja", "mama", "huam", "vasq", "chav",
+        "rami", "torr", "mend", "cast", "diaz", "gonz", "pere", "lope", "guti", "ramo"
+    };
+
+    private static final Pattern ID_PACIENTE = Pattern.compile("\"id\":(\\d+)");
+
+    private static final Pattern HORARIO_LIBRE =
+        Pattern.compile("\"medicoId\":(\\d+).*?\"fechaHora\":\"(\\d{4}-\\d{2}-\\d{2})T(\\d{2}:\\d{2})");
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8082";
+        String usuario = null;
+        String clave = null;
+        int concurrencia = 100;
+        int duracionSegundos = 30;
+        int calentamientoSegundos = 5;
+        String etiqueta = "sin-etiqueta";
+        String escenario = "rutas";
+        String datos = "target/generador/datos.properties";
+        List<String> rutas = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url" -> url = args[++i];
+                case "--usuario" -> usuario = args[++i];
+                case "--clave" -> clave = args[++i];
+                case "--concurrencia" -> concurrencia = Integer.parseInt(args[++i]);
+                case "--duracion" -> duracionSegundos = Integer.parseInt(args[++i]);
+                case "--calentamiento" -> calentamientoSegundos = Integer.parseInt(args[++i]);
+                case "--etiqueta" -> etiqueta = args[++i];
+                case "--ruta" -> rutas.add(args[++i]);
+                case "--escenario" -> escenario = args[++i];
+                case "--datos" -> datos = args[++i];
+                default -> throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+
+        HttpClient cliente = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Math.max(4, concurrencia / 10)))
+            .build();
+
+        if (usuario != null) {
+            iniciarSesion(cliente, url, usuario, clave);
+        }
+
+        Escenario flujo;
+        if ("secretario".equals(escenario)) {
+            flujo = new EscenarioSecretario(cliente, url, cargarDatos(Path.of(datos)));
+        } else if ("rutas".equals(escenario)) {
+            if (rutas.isEmpty()) {
+                rutas.add("/secretario/dashboard");
+            }
+            flujo = new EscenarioRutas(cliente, url, rutas);
+        } else {
+            throw new IllegalArgumentException("Escenario desconocido: " + escenario);
+        }
+
+        System.out.printf("Calentamiento de %d s...%n", calentamientoSegundos);
+        ejecutar(flujo, concurrencia, calentamientoSegundos);
+
+        System.out.printf("Midiendo %d s con %d usuarios concurrentes (escenario %s)%n",
+                          duracionSegundos, concurrencia, escenario);
+        List<Resultado> resultados = ejecutar(flujo, concurrencia, duracionSegundos);
+
+        long correctas = 0;
+        long errores = 0;
+        long[] todas = new long[0];
+        StringBuilder pasos = new StringBuilder();
+        for (Resultado resultado : resultados) {
+            System.out.printf("%-28s correctas: %7d  errores: %6d  %8.1f/s  p50: %7.1f ms  p99: %7.1f ms  máx: %7.1f ms%n",
+                              resultado.paso, resultado.correctas, resultado.errores,
+                              resultado.correctas / (double) duracionSegundos,
+                              resultado.percentilMs(0.50), resultado.percentilMs(0.99), resultado.percentilMs(1.0));
+            correctas += resultado.correctas;
+            errores += resultado.errores;
+            todas = unir(todas, resultado.latenciasOrdenadas);
+            if (pasos.length() > 0) {
+                pasos.append(',');
+            }
+            pasos.append(String.format(Locale.ROOT,
+                "{\"paso\":\"%s\",\"correctas\":%d,\"errores\":%d,\"p50Ms\":%.1f,\"p99Ms\":%.1f}",
+                resultado.paso, resultado.correctas, resultado.errores,
+                resultado.percentilMs(0.50), resultado.percentilMs(0.99)));
+        }
+        Arrays.sort(todas);
+        Resultado total = new Resultado("total", correctas, errores, todas);
+
+        double porSegundo = correctas / (double) duracionSegundos;
+        System.out.printf("Peticiones correctas: %d, errores: %d%n", correctas, errores);
+        System.out.printf("Rendimiento: %.1f peticiones/s%n", porSegundo);
+        System.out.printf("Latencia p50: %.1f ms, p99: %.1f ms, máxima: %.1f ms%n",
+                          total.percentilMs(0.50), total.percentilMs(0.99), total.percentilMs(1.0));
+        System.out.printf(Locale.ROOT,
+            "{\"etiqueta\":\"%s\",\"escenario\":\"%s\",\"concurrencia\":%d,\"duracionSegundos\":%d,\"correctas\":%d," +
+            "\"errores\":%d,\"peticionesPorSegundo\":%.1f,\"p50Ms\":%.1f,\"p99Ms\":%.1f,\"pasos\":[%s]}%n",
+            etiqueta, escenario, concurrencia, duracionSegundos, correctas, errores,
+            porSegundo, total.percentilMs(0.50), total.percentilMs(0.99), pasos);
+        System.exit(0);
+    }
+
+    private static void iniciarSesion(HttpClient cliente, String url, String usuario, String clave) throws Exception {
+        String formulario = "username=" + URLEncoder.encode(usuario, StandardCharsets.UTF_8)
+            + "&password=" + URLEncoder.encode(clave != null ? clave : "", StandardCharsets.UTF_8);
+        HttpResponse<Void> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(url + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulario))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+        String destino = respuesta.headers().firstValue("Location").orElse("");
+        if (destino.contains("error")) {
+            throw new IllegalStateException("No se pudo iniciar sesión con el usuario " + usuario);
+        }
+    }
+
+    private static Datos cargarDatos(Path archivo) throws IOException {
+        Properties propiedades = new Properties();
+        try (Reader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            propiedades.load(lector);
+        }
+        Queue<String> citas = new ConcurrentLinkedQueue<>();
+        String archivoCitas = propiedades.getProperty("citas-programadas");
+        if (archivoCitas != null && Files.exists(Path.of(archivoCitas))) {
+            List<String> ids = new ArrayList<>(Files.readAllLines(Path.of(archivoCitas), StandardCharsets.UTF_8));
+            Collections.shuffle(ids);
+            citas.addAll(ids);
+        }
+        return new Datos(
+            propiedades.getProperty("especialidades", "").split(","),
+            propiedades.getProperty("consultorios", "").split(","),
+            citas);
+    }
+
+    private static List<Resultado> ejecutar(Escenario escenario, int concurrencia, int duracionSegundos)
+            throws InterruptedException {
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(duracionSegundos);
+        List<String> pasos = escenario.pasos();
+        Medidor[] medidores = new Medidor[concurrencia];
+
+        ExecutorService usuarios = Executors.newFixedThreadPool(concurrencia);
+        for (int u = 0; u < concurrencia; u++) {
+            Medidor medidor = new Medidor(pasos.size(), fin);
+            medidores[u] = medidor;
+            int indice = u;
+            usuarios.execute(() -> {
+                int iteracion = indice;
+                while (!medidor.terminado()) {
+                    escenario.ejecutar(medidor, iteracion++);
+                }
+            });
+        }
+        usuarios.shutdown();
+        usuarios.awaitTermination(duracionSegundos + 60L, TimeUnit.SECONDS);
+
+        List<Resultado> resultados = new ArrayList<>(pasos.size());
+        for (int p = 0; p < pasos.size(); p++) {
+            long correctas = 0;
+            long errores = 0;
+            long[] latencias = new long[0];
+            for (Medidor medidor : medidores) {
+                correctas += medidor.correctas[p];
+                errores += medidor.errores[p];
+                latencias = unir(latencias, Arrays.copyOf(medidor.latencias[p], medidor.cantidades[p]));
+            }
+            Arrays.sort(latencias);
+            resultados.add(new Resultado(pasos.get(p), correctas, errores, latencias));
+        }
+        return resultados;
+    }
+
+    private static long[] unir(long[] a, long[] b) {
+        long[] resultado = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, resultado, a.length, b.length);
+        return resultado;
+    }
+
+    /**
+     * Flujo que repite cada usuario virtual; cada petición se registra en uno de sus pasos
+     */
+    private interface Escenario {
+
+        List<String> pasos();
+
+        void ejecutar(Medidor medidor, int iteracion);
+    }
+
+    /**
+     * Peticiones GET en rueda sobre una lista de rutas; cada ruta es un paso
+     */
+    private record EscenarioRutas(HttpClient cliente, String url, List<String> rutas) implements Escenario {
+
+        @Override
+        public List<String> pasos() {
+            return rutas;
+        }
+
+        @Override
+        public void ejecutar(Medidor medidor, int iteracion) {
+            int paso = iteracion % rutas.size();
+            medidor.medir(paso, () -> get(cliente, url + rutas.get(paso)).statusCode() == 200);
+        }
+    }
+
+    /**
+     * Flujo de recepción: dashboard, búsqueda de paciente, primeros horarios libres, reserva y confirmación
+     * Una reserva rechazada (el formulario vuelve con 200) cuenta como error del paso 'reservar'
+     */
+    private record EscenarioSecretario(HttpClient cliente, String url, Datos datos) implements Escenario {
+
+        private static final List<String> PASOS =
+            List.of("dashboard", "buscar-paciente", "primeros-horarios", "reservar", "confirmar");
+
+        @Override
+        public List<String> pasos() {
+            return PASOS;
+        }
+
+        @Override
+        public void ejecutar(Medidor medidor, int iteracion) {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+
+            medidor.medir(0, () -> get(cliente, url + "/secretario/dashboard").statusCode() == 200);
+
+            String[] pacienteId = new String[1];
+            medidor.medir(1, () -> {
+                String busqueda = BUSQUEDAS[aleatorio.nextInt(BUSQUEDAS.length)];
+                HttpResponse<String> respuesta = getTexto(cliente, url + "/secretario/api/pacientes/suggest?q=" + busqueda);
+                List<String> ids = extraer(ID_PACIENTE, respuesta.body());
+                if (!ids.isEmpty()) {
+                    pacienteId[0] = ids.get(aleatorio.nextInt(ids.size()));
+                }
+                return respuesta.statusCode() == 200 && pacienteId[0] != null;
+            });
+
+            String[][] horario = new String[1][];
+            medidor.medir(2, () -> {
+                String especialidad = datos.especialidades[aleatorio.nextInt(datos.especialidades.length)];
+                HttpResponse<String> respuesta = getTexto(cliente,
+                    url + "/secretario/especialidades/" + especialidad + "/primeros-horarios?cantidad=3");
+                List<String[]> libres = new ArrayList<>();
+                Matcher matcher = HORARIO_LIBRE.matcher(respuesta.body());
+                while (matcher.find()) {
+                    libres.add(new String[] {matcher.group(1), matcher.group(2), matcher.group(3)});
+                }
+                if (!libres.isEmpty()) {
+                    horario[0] = libres.get(aleatorio.nextInt(libres.size()));
+                }
+                return respuesta.statusCode() == 200;
+            });
+            if (pacienteId[0] != null && horario[0] != null) {
+                String[] elegido = horario[0];
+                medidor.medir(3, () -> {
+                    String formulario = "pacienteId=" + pacienteId[0]
+                        + "&medicoId=" + elegido[0]
+                        + "&consultorioId=" + datos.consultorios[aleatorio.nextInt(datos.consultorios.length)]
+                        + "&fecha=" + elegido[1]
+                        + "&hora=" + elegido[2]
+                        + "&motivo=" + URLEncoder.encode("Prueba de carga", StandardCharsets.UTF_8);
+                    HttpResponse<Void> respuesta = post(cliente, url + "/secretario/citas/nueva", formulario);
+                    return respuesta.statusCode() == 302
+                        && respuesta.headers().firstValue("Location").orElse("").contains("/secretario/citas");
+                });
+            }
+
+            String citaId = datos.citasProgramadas.poll();
+            if (citaId != null) {
+                medidor.medir(4, () -> post(cliente, url + "/secretario/citas/" + citaId + "/confirmar", "")
+                    .statusCode() == 302);
+            }
+        }
+    }
+
+    private static HttpResponse<Void> get(HttpClient cliente, String url) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static HttpResponse<String> getTexto(HttpClient cliente, String url) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build(),
+                            HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private static HttpResponse<Void> post(HttpClient cliente, String url, String formulario) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulario))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static List<String> extraer(Pattern patron, String texto) {
+        List<String> valores = new ArrayList<>();
+        Matcher matcher = patron.matcher(texto);
+        while (matcher.find()) {
+            valores.add(matcher.group(1));
+        }
+        return valores;
+    }
+
+    private interface Peticion {
+        boolean ejecutar() throws Exception;
+    }
+
+    /**
+     * Latencias y contadores de un usuario virtual por paso; solo lo usa su propio hilo
+     */
+    private static final class Medidor {
+        private final long fin;
+        private final long[][] latencias;
+        private final int[] cantidades;
+        private final long[] correctas;
+        private final long[] errores;
+
+        private Medidor(int pasos, long fin) {
+            this.fin = fin;
+            this.latencias = new long[pasos][1024];
+            this.cantidades = new int[pasos];
+            this.correctas = new long[pasos];
+            this.errores = new long[pasos];
+        }
+
+        private boolean terminado() {
+            return System.nanoTime() >= fin;
+        }
+
+        /**
+         * Ejecuta una petición si aún queda tiempo y registra su latencia si fue correcta
+         */
+        private void medir(int paso, Peticion peticion) {
+            if (terminado()) {
+                return;
+            }
+            long inicio = System.nanoTime();
+            boolean correcta;
+            try {
+                correcta = peticion.ejecutar();
+            } catch (Exception e) {
+                correcta = false;
+            }
+            if (!correcta) {
+                errores[paso]++;
+                return;
+            }
+            correctas[paso]++;
+            if (cantidades[paso] == latencias[paso].length) {
+                latencias[paso] = Arrays.copyOf(latencias[paso], cantidades[paso] * 2);
+            }
+            latencias[paso][cantidades[paso]++] = System.nanoTime() - inicio;
+        }
+    }
+
+    private record Datos(String[] especialidades, String[] consultorios, Queue<String> citasProgramadas) {
+    }
+
+    private record Resultado(String paso, long correctas, long errores, long[] latenciasOrdenadas) {
+
+        double percentilMs(double percentil) {
+            if (latenciasOrdenadas.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(percentil * latenciasOrdenadas.length) - 1;
+            return latenciasOrdenadas[Math.max(0, indice)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+#!/bin/sh
+# Compara rendimiento y latencia p99 con hilos de plataforma y con hilos virtuales
+# Requiere Java 21, MySQL con datos de prueba y un usuario con rol SECRETARIO
+# Uso: scripts/carga/comparar-hilos.sh <usuario> <clave> [concurrencia] [duracion-segundos]
+set -e
+
+USUARIO=${1:?Indique el usuario}
+CLAVE=${2:?Indique la clave}
+CONCURRENCIA=${3:-200}
+DURACION=${4:-60}
+PUERTO=8082
+URL="http://localhost:$PUERTO"
+RUTAS="--ruta /secretario/dashboard --ruta /secretario/citas --ruta /secretario/pacientes"
+
+./mvnw -q -Pjava21 -DskipTests package
+JAR=$(ls target/sana-corp-secretario-*.jar | head -n 1)
+
+for MODO in plataforma virtual; do
+    if [ "$MODO" = "virtual" ]; then PERFIL="--spring.profiles.active=virtual"; else PERFIL=""; fi
+    java -jar "$JAR" $PERFIL > "target/carga-$MODO.log" 2>&1 &
+    PID=$!
+    until curl -sf "$URL/actuator/health" > /dev/null; do sleep 2; done
+
+    java scripts/carga/PruebaCarga.java --url "$URL" --usuario "$USUARIO" --clave "$CLAVE" \
+        --concurrencia "$CONCURRENCIA" --duracion "$DURACION" --etiqueta "$MODO" $RUTAS \
+        | tail -n 1 >> target/carga-resultados.jsonl
+
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+done
+
+cat target/carga-resultados.jsonl
@@ -0,0 +1,170 @@
+package com.sanacorp.benchmarks;
+
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Cita.EstadoCita;
+import com.sanacorp.models.Horario;
+import com.sanacorp.models.Medico;
+import com.sanacorp.models.Rol;
+import com.sanacorp.models.Usuario;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Datos en memoria de tamaño realista para los benchmarks: 1.000 médicos con sus horarios
+ * de atención y 1.000.000 de citas repartidas en días laborables
+ * Se generan con una semilla fija para que las ejecuciones sean comparables
+ */
+@State(Scope.Benchmark)
+public class FixtureHospital {
+
+    public static final int MEDICOS = 1_000;
+    public static final int CITAS = 1_000_000;
+    public static final LocalDate PRIMER_DIA = LocalDate.of(2025, 1, 6);
+
+    private static final EstadoCita[] ESTADOS = EstadoCita.values();
+
+    public List<Medico> medicos;
+
+    // Horarios por médico, ordenados por día y hora de inicio
+    public Map<Long, List<Horario>> horariosPorMedico;
+
+    // Horarios por médico y día de la semana (lo que devuelve findByMedicoIdAndDiaSemana)
+    public Map<Long, Map<Integer, List<Horario>>> horariosPorMedicoYDia;
+
+    // Citas por médico, ordenadas por fecha y hora
+    public Map<Long, List<Cita>> citasPorMedico;
+
+    // Citas por médico y fecha (lo que devuelve findByMedicoIdAndFecha)
+    public Map<Long, Map<LocalDate, List<Cita>>> citasPorMedicoYFecha;
+
+    public List<Cita> citas;
+
+    public List<Rol> roles;
+
+    public List<Usuario> usuarios;
+
+    @Setup
+    public void generar() {
+        Random aleatorio = new Random(20250106L);
+
+        medicos = new ArrayList<>(MEDICOS);
+        horariosPorMedico = new HashMap<>();
+        horariosPorMedicoYDia = new HashMap<>();
+        for (long id = 1; id <= MEDICOS; id++) {
+            Medico medico = new Medico();
+            medico.setId(id);
+            medicos.add(medico);
+
+            // Turno de mañana y tarde de lunes a sábado; la mitad de los médicos no atiende el sábado por la tarde
+            List<Horario> horarios = new ArrayList<>();
+            Map<Integer, List<Horario>> porDia = new HashMap<>();
+            for (int dia = 1; dia <= 6; dia++) {
+                List<Horario> delDia = new ArrayList<>(2);
+                delDia.add(new Horario(dia, LocalTime.of(8, 0), LocalTime.of(13, 0), medico));
+                if (dia < 6 || id % 2 == 0) {
+                    delDia.add(new Horario(dia, LocalTime.of(14, 0), LocalTime.of(18, 0), medico));
+                }
+                horarios.addAll(delDia);
+                porDia.put(dia, delDia);
+            }
+            horariosPorMedico.put(id, horarios);
+            horariosPorMedicoYDia.put(id, porDia);
+        }
+
+        // Citas en intervalos de 30 minutos dentro del turno de mañana, avanzando día a día por médico
+        citas = new ArrayList<>(CITAS);
+        citasPorMedico = new HashMap<>();
+        citasPorMedicoYFecha = new HashMap<>();
+        int citasPorMedicoTotal = CITAS / MEDICOS;
+        long idCita = 1;
+        for (Medico medico : medicos) {
+            List<Cita> delMedico = new ArrayList<>(citasPorMedicoTotal);
+            Map<LocalDate, List<Cita>> porFecha = new HashMap<>();
+            LocalDate fecha = PRIMER_DIA;
+            int intervalo = 0;
+            while (delMedico.size() < citasPorMedicoTotal) {
+                if (intervalo == 10 || fecha.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    fecha = fecha.plusDays(1);
+                    intervalo = 0;
+                    continue;
+                }
+                // Aproximadamente la mitad de los intervalos quedan ocupados
+                if (aleatorio.nextBoolean()) {
+                    Cita cita = new Cita();
+                    cita.setIdCita(idCita++);
+                    cita.setMedico(medico);
+                    cita.setFechaHora(fecha.atTime(8, 0).plusMinutes(30L * intervalo));
+                    cita.setEstado(ESTADOS[aleatorio.nextInt(ESTADOS.length)]);
+                    cita.setFechaCreacion(cita.getFechaHora().minusDays(7));
+                    delMedico.add(cita);
+                    porFecha.computeIfAbsent(fecha, f -> new ArrayList<>()).add(cita);
+                    citas.add(cita);
+                }
+                intervalo++;
+            }
+            citasPorMedico.put(medico.getId(), delMedico);
+            citasPorMedicoYFecha.put(medico.getId(), porFecha);
+        }
+
+        roles = new ArrayList<>();
+        String[] nombresRoles = {"Administrador", "Secretario", "Medico"};
+        for (int i = 0; i < nombresRoles.length; i++) {
+            Rol rol = new Rol(nombresRoles[i], null);
+            rol.setId(i + 1L);
+            roles.add(rol);
+        }
+        usuarios = new ArrayList<>(MEDICOS);
+        for (int i = 0; i < MEDICOS; i++) {
+            Usuario usuario = new Usuario("usuario" + i, "{noop}clave", "usuario" + i + "@sanacorp.com");
+            usuario.getRoles().add(roles.get(i % roles.size()));
+            if (i % 10 == 0) {
+                usuario.getRoles().add(roles.get((i + 1) % roles.size()));
+            }
+            usuarios.add(usuario);
+        }
+    }
+
+    /**
+     * Crea una implementación en memoria de un repositorio de Spring Data
+     * Solo responde a los métodos indicados; el resto lanza UnsupportedOperationException
+     * @param tipo Interfaz del repositorio
+     * @param metodos Implementación de cada método por nombre
+     * @return Repositorio en memoria
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repositorio(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, (proxy, metodo, args) -> {
+            Function<Object[], Object> implementacion = metodos.get(metodo.getName());
+            if (implementacion == null) {
+                throw new UnsupportedOperationException(metodo.getName());
+            }
+            return implementacion.apply(args);
+        });
+    }
+
+    /**
+     * Asigna un campo privado inyectado por Spring
+     */
+    public static void inyectar(Object destino, String campo, Object valor) {
+        try {
+            Field field = destino.getClass().getDeclaredField(campo);
+            field.setAccessible(true);
+            field.set(destino, valor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo asignar el campo " + campo, e);
+        }
+    }
+}
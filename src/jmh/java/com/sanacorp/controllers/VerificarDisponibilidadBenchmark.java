@@ -0,0 +1,61 @@
+package com.sanacorp.controllers;
+
+import com.sanacorp.benchmarks.FixtureHospital;
+import com.sanacorp.models.Cita;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comprobación de solapamiento usada por el endpoint de disponibilidad de médico
+ * Recibe las citas de un médico en un día, como las devuelve el repositorio
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class VerificarDisponibilidadBenchmark {
+
+    private static final int CONSULTAS = 4096;
+
+    private List<List<Cita>> citasDelDia;
+    private LocalTime[] horas;
+    private int siguiente;
+
+    @Setup
+    public void preparar(FixtureHospital fixture) {
+        Random aleatorio = new Random(11);
+        citasDelDia = new ArrayList<>(CONSULTAS);
+        horas = new LocalTime[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            long medicoId = 1 + aleatorio.nextInt(FixtureHospital.MEDICOS);
+            Map<LocalDate, List<Cita>> porFecha = fixture.citasPorMedicoYFecha.get(medicoId);
+            LocalDate fecha = FixtureHospital.PRIMER_DIA.plusDays(aleatorio.nextInt(120));
+            citasDelDia.add(porFecha.getOrDefault(fecha, List.of()));
+            horas[i] = LocalTime.of(8 + aleatorio.nextInt(5), aleatorio.nextBoolean() ? 0 : 30);
+        }
+    }
+
+    @Benchmark
+    public boolean horarioSinConflictos() {
+        int i = siguiente++ & (CONSULTAS - 1);
+        return SecretarioController.horarioSinConflictos(citasDelDia.get(i), horas[i]);
+    }
+}
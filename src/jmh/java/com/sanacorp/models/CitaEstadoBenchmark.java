@@ -0,0 +1,69 @@
+package com.sanacorp.models;
+
+import com.sanacorp.benchmarks.FixtureHospital;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comprobaciones de estado de las citas sobre el millón de citas del fixture
+ * Mide el recorrido completo, como al filtrar las citas de un listado grande
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class CitaEstadoBenchmark {
+
+    private List<Cita> citas;
+
+    @Setup
+    public void preparar(FixtureHospital fixture) {
+        citas = fixture.citas;
+    }
+
+    @Benchmark
+    public int puedeSerCancelada() {
+        int total = 0;
+        for (Cita cita : citas) {
+            if (cita.puedeSerCancelada()) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int puedeSerCompletada() {
+        int total = 0;
+        for (Cita cita : citas) {
+            if (cita.puedeSerCompletada()) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int ocupaHorario() {
+        int total = 0;
+        for (Cita cita : citas) {
+            if (cita.ocupaHorario()) {
+                total++;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,46 @@
+package com.sanacorp.security;
+
+import com.sanacorp.benchmarks.FixtureHospital;
+import com.sanacorp.models.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de los roles de un usuario en autoridades de Spring Security durante el inicio de sesión
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class AutoridadesBenchmark {
+
+    private CustomUserDetailsService userDetailsService;
+    private List<Usuario> usuarios;
+    private int siguiente;
+
+    @Setup
+    public void preparar(FixtureHospital fixture) {
+        userDetailsService = new CustomUserDetailsService();
+        usuarios = fixture.usuarios;
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> mapRolesToAuthorities() {
+        Usuario usuario = usuarios.get(siguiente++ % usuarios.size());
+        return userDetailsService.mapRolesToAuthorities(usuario);
+    }
+}
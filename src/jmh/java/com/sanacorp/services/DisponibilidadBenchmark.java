@@ -0,0 +1,60 @@
+package com.sanacorp.services;
+
+import com.sanacorp.benchmarks.FixtureHospital;
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Horario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de intervalos libres de un médico durante una semana a partir de sus horarios y citas activas
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class DisponibilidadBenchmark {
+
+    private List<Horario> horarios;
+    private List<Cita> citasActivas;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private LocalDateTime ahora;
+
+    @Setup
+    public void preparar(FixtureHospital fixture) {
+        horarios = fixture.horariosPorMedico.get(1L);
+        desde = FixtureHospital.PRIMER_DIA.plusWeeks(4);
+        hasta = desde.plusDays(6);
+        ahora = FixtureHospital.PRIMER_DIA.atStartOfDay();
+
+        citasActivas = new ArrayList<>();
+        for (Cita cita : fixture.citasPorMedico.get(1L)) {
+            LocalDate fecha = cita.getFechaHora().toLocalDate();
+            if (cita.ocupaHorario() && !fecha.isBefore(desde) && !fecha.isAfter(hasta)) {
+                citasActivas.add(cita);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<LocalDateTime> calcularHorariosLibresSemana() {
+        return DisponibilidadService.calcularHorariosLibres(horarios, citasActivas, desde, hasta, ahora);
+    }
+}
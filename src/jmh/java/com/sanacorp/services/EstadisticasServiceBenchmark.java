@@ -0,0 +1,114 @@
+package com.sanacorp.services;
+
+import com.sanacorp.SanaCorpApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estadísticas del dashboard del administrador sobre una base H2 en memoria llenada por GeneradorDatos
+ * La escala multiplica pacientes y médicos, y con ellos las citas (de ~35.000 a ~1.000.000).
+ * Con el perfilador gc, gc.alloc.rate.norm (bytes asignados por operación) de 'conteos' se mantiene
+ * constante al crecer las tablas, mientras que 'cargandoEntidades' (el cálculo anterior, con
+ * listarTodos().size()) crece con ellas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class EstadisticasServiceBenchmark {
+
+    @Param({"1", "10", "30"})
+    public int escala;
+
+    private ConfigurableApplicationContext contexto;
+
+    private EstadisticasService estadisticasService;
+
+    private MedicoService medicoService;
+
+    private PacienteService pacienteService;
+
+    private EspecialidadService especialidadService;
+
+    private ConsultorioService consultorioService;
+
+    private CitaService citaService;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(SanaCorpApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("dev", "generador")
+            // Como argumentos de línea de comandos, para que prevalezcan sobre application-dev.properties
+            .run(
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.sanacorp=INFO",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--sanacorp.sql.presupuesto.habilitado=false",
+                "--sanacorp.generador.pacientes=" + 5_000 * escala,
+                "--sanacorp.generador.medicos-por-especialidad=" + escala,
+                "--sanacorp.generador.salida=target/jmh-generador");
+
+        estadisticasService = contexto.getBean(EstadisticasService.class);
+        medicoService = contexto.getBean(MedicoService.class);
+        pacienteService = contexto.getBean(PacienteService.class);
+        especialidadService = contexto.getBean(EspecialidadService.class);
+        consultorioService = contexto.getBean(ConsultorioService.class);
+        citaService = contexto.getBean(CitaService.class);
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        System.out.printf("%nEscala %d: %d pacientes, %d médicos, %d citas%n", escala,
+                          jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pacientes", Long.class),
+                          jdbcTemplate.queryForObject("SELECT COUNT(*) FROM medicos", Long.class),
+                          jdbcTemplate.queryForObject("SELECT COUNT(*) FROM citas", Long.class));
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    /**
+     * Cálculo actual: consultas COUNT y agregadas, sin la caché de corta duración
+     */
+    @Benchmark
+    public EstadisticasService.EstadisticasAdmin conteos() {
+        estadisticasService.invalidar();
+        return estadisticasService.getEstadisticasAdmin();
+    }
+
+    /**
+     * Cálculo anterior del dashboard: materializa cada tabla para contar sus filas
+     */
+    @Benchmark
+    public long cargandoEntidades() {
+        return medicoService.listarTodos().size()
+            + pacienteService.getAllPacientes().size()
+            + especialidadService.listarTodas().size()
+            + consultorioService.getAllConsultoriosActivos().size()
+            + citaService.getCitasDelDia().size()
+            + citaService.getCitasPorFecha(LocalDate.now()).size();
+    }
+}
@@ -0,0 +1,68 @@
+package com.sanacorp.services;
+
+import com.sanacorp.benchmarks.FixtureHospital;
+import com.sanacorp.models.Horario;
+import com.sanacorp.repositories.HorarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación de disponibilidad de un médico según sus horarios de atención
+ * El repositorio responde desde memoria, por lo que se mide solo la lógica del servicio
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class HorarioServiceBenchmark {
+
+    private static final int CONSULTAS = 4096;
+
+    private HorarioService horarioService;
+
+    private long[] medicos;
+    private int[] dias;
+    private LocalTime[] horas;
+    private int siguiente;
+
+    @Setup
+    public void preparar(FixtureHospital fixture) {
+        horarioService = new HorarioService();
+        Map<Long, Map<Integer, List<Horario>>> horarios = fixture.horariosPorMedicoYDia;
+        FixtureHospital.inyectar(horarioService, "horarioRepository", FixtureHospital.repositorio(HorarioRepository.class,
+            Map.of("findByMedicoIdAndDiaSemana",
+                   args -> horarios.getOrDefault((Long) args[0], Map.of()).getOrDefault((Integer) args[1], List.of()))));
+
+        Random aleatorio = new Random(7);
+        medicos = new long[CONSULTAS];
+        dias = new int[CONSULTAS];
+        horas = new LocalTime[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            medicos[i] = 1 + aleatorio.nextInt(FixtureHospital.MEDICOS);
+            dias[i] = 1 + aleatorio.nextInt(7);
+            horas[i] = LocalTime.of(7 + aleatorio.nextInt(12), aleatorio.nextBoolean() ? 0 : 30);
+        }
+    }
+
+    @Benchmark
+    public boolean medicoTieneDisponibilidad() {
+        int i = siguiente++ & (CONSULTAS - 1);
+        return horarioService.medicoTieneDisponibilidad(medicos[i], dias[i], horas[i], horas[i].plusMinutes(30));
+    }
+}
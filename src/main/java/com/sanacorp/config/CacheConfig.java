@@ -0,0 +1,78 @@
+package com.sanacorp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Configuración de la caché de datos de referencia (especialidades y consultorios)
+ * y de los usuarios autenticados
+ * Cachés en memoria con Caffeine, acotadas en tamaño y con estadísticas de aciertos y fallos
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ESPECIALIDADES_ACTIVAS = "especialidadesActivas";
+    public static final String ESPECIALIDADES = "especialidades";
+    public static final String CONSULTORIOS_ACTIVOS = "consultoriosActivos";
+    public static final String USUARIOS = "usuarios";
+
+    /**
+     * Las invalidaciones se aplican al confirmar la transacción, para que otra petición
+     * no vuelva a cargar en la caché datos que aún no están confirmados
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${sanacorp.cache.referencia.tamano-maximo:500}") long tamanoMaximo,
+                                     @Value("${sanacorp.cache.referencia.ttl-minutos:60}") long ttlMinutos,
+                                     @Value("${sanacorp.cache.usuarios.tamano-maximo:10000}") long tamanoMaximoUsuarios,
+                                     @Value("${sanacorp.cache.usuarios.ttl-minutos:10}") long ttlMinutosUsuarios) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+            ESPECIALIDADES_ACTIVAS, ESPECIALIDADES, CONSULTORIOS_ACTIVOS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(tamanoMaximo)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+            .recordStats());
+        
+        // Los usuarios tienen un tiempo de vida más corto: un cambio de contraseña o de roles
+        // hecho fuera de la aplicación se refleja, como máximo, al expirar la entrada
+        cacheManager.registerCustomCache(USUARIOS, Caffeine.newBuilder()
+            .maximumSize(tamanoMaximoUsuarios)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutosUsuarios))
+            .recordStats()
+            .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Resuelve con el cargador de recursos de Spring la URI classpath: de la configuración de la caché
+     * de segundo nivel (hibernate-cache.conf). Hibernate solo la encuentra cuando Tomcat embebido ya
+     * registró su manejador para ese esquema, lo que no ocurre en contextos sin servidor web
+     * (pruebas, benchmarks)
+     */
+    @Bean
+    public HibernatePropertiesCustomizer uriCacheSegundoNivelCustomizer(ResourceLoader resourceLoader) {
+        return propiedades -> {
+            if (propiedades.get(ConfigSettings.CONFIG_URI) instanceof String ubicacion
+                    && ubicacion.startsWith(ResourceUtils.CLASSPATH_URL_PREFIX)) {
+                try {
+                    propiedades.put(ConfigSettings.CONFIG_URI, resourceLoader.getResource(ubicacion).getURI().toString());
+                } catch (IOException e) {
+                    throw new RuntimeException("No se encontró la configuración de caché " + ubicacion, e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.sanacorp.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Contador de sentencias SQL por hilo para detectar consultas N+1 y peticiones lentas
+ * Hibernate lo usa como StatementInspector (cuenta cada sentencia preparada y agrupa las repetidas)
+ * y como SessionEventListener (acumula el tiempo de ejecución JDBC). Solo cuenta mientras haya una
+ * medición abierta en el hilo: la abre PresupuestoSentenciasInterceptor para cada petición HTTP,
+ * o una prueba con {@link #iniciar(String)} y {@link #terminar()} para fijar el número de sentencias de un endpoint
+ */
+public class ContadorSentencias implements StatementInspector, SessionEventListener {
+
+    private static final ThreadLocal<Medicion> MEDICION_ACTUAL = new ThreadLocal<>();
+
+    /**
+     * Abre una medición en el hilo actual si no hay otra abierta
+     * @param origen Descripción de lo que se mide (por ejemplo, el método del controlador)
+     * @return true si se abrió la medición, false si ya había una abierta
+     */
+    public static boolean iniciar(String origen) {
+        if (MEDICION_ACTUAL.get() != null) {
+            return false;
+        }
+        MEDICION_ACTUAL.set(new Medicion(origen));
+        return true;
+    }
+
+    /**
+     * Cierra la medición del hilo actual
+     * @return Medición cerrada, o null si no había ninguna abierta
+     */
+    public static Medicion terminar() {
+        Medicion medicion = MEDICION_ACTUAL.get();
+        MEDICION_ACTUAL.remove();
+        return medicion;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Medicion medicion = MEDICION_ACTUAL.get();
+        if (medicion != null) {
+            medicion.registrarSentencia(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        iniciarEjecucion();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        terminarEjecucion();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        iniciarEjecucion();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        terminarEjecucion();
+    }
+
+    private static void iniciarEjecucion() {
+        Medicion medicion = MEDICION_ACTUAL.get();
+        if (medicion != null) {
+            medicion.inicioEjecucion = System.nanoTime();
+        }
+    }
+
+    private static void terminarEjecucion() {
+        Medicion medicion = MEDICION_ACTUAL.get();
+        if (medicion != null && medicion.inicioEjecucion != 0) {
+            medicion.nanosEjecucion += System.nanoTime() - medicion.inicioEjecucion;
+            medicion.inicioEjecucion = 0;
+        }
+    }
+
+    /**
+     * Sentencias SQL emitidas y tiempo JDBC acumulado durante una medición
+     */
+    public static class Medicion {
+        private final String origen;
+        private final Map<String, Integer> repeticiones = new HashMap<>();
+        private int sentencias;
+        private long nanosEjecucion;
+        private long inicioEjecucion;
+
+        private Medicion(String origen) {
+            this.origen = origen;
+        }
+
+        private void registrarSentencia(String sql) {
+            sentencias++;
+            repeticiones.merge(sql, 1, Integer::sum);
+        }
+
+        public String getOrigen() {
+            return origen;
+        }
+
+        public int getSentencias() {
+            return sentencias;
+        }
+
+        public long getMilisegundos() {
+            return nanosEjecucion / 1_000_000;
+        }
+
+        /**
+         * Mayor número de veces que se emitió una misma sentencia (síntoma de consultas N+1)
+         */
+        public int getMaximoRepeticiones() {
+            return repeticiones.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+
+        /**
+         * Sentencias emitidas al menos el número de veces indicado, de la más repetida a la menos
+         * @param minimo Número mínimo de repeticiones
+         * @return Sentencias con su número de repeticiones
+         */
+        public List<Map.Entry<String, Integer>> getSentenciasRepetidas(int minimo) {
+            return repeticiones.entrySet().stream()
+                .filter(e -> e.getValue() >= minimo)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .collect(Collectors.toList());
+        }
+    }
+}
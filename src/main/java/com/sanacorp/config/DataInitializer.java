@@ -6,6 +6,7 @@ import com.sanacorp.repositories.RolRepository;
 import com.sanacorp.repositories.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -15,6 +16,7 @@ import java.time.LocalDateTime;
  * Inicializador de datos para crear usuarios y roles por defecto
  */
 @Component
+@Order(1)
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
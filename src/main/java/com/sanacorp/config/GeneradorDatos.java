@@ -0,0 +1,420 @@
+package com.sanacorp.config;
+
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Cita.EstadoCita;
+import com.sanacorp.models.Rol;
+import com.sanacorp.models.Usuario;
+import com.sanacorp.repositories.RolRepository;
+import com.sanacorp.repositories.UsuarioRepository;
+import com.sanacorp.services.EstadisticasService;
+import com.sanacorp.services.OcupacionMedicoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Generador de datos sintéticos para pruebas de carga (perfil 'generador')
+ * Inserta por lotes con JDBC personas, pacientes, médicos por especialidad, consultorios,
+ * horarios semanales y años de historial de citas con una distribución de estados realista.
+ * Funciona sobre H2 (perfil 'dev') o sobre MySQL local:
+ *   java -jar app.jar --spring.profiles.active=dev,generador --sanacorp.generador.pacientes=50000
+ * Se ejecuta después de DataInitializer; al terminar escribe en sanacorp.generador.salida
+ * los IDs que necesita scripts/carga/PruebaCarga.java
+ */
+@Component
+@Profile("generador")
+@Order(100)
+public class GeneradorDatos implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneradorDatos.class);
+
+    private static final String[] NOMBRES = {
+        "María", "José", "Juan", "Rosa", "Luis", "Ana", "Carlos", "Carmen", "Jorge", "Julia",
+        "Miguel", "Elena", "Pedro", "Lucía", "Jesús", "Sofía", "Manuel", "Valeria", "Víctor", "Gabriela",
+        "César", "Patricia", "Ricardo", "Claudia", "Fernando", "Diana", "Raúl", "Silvia", "Óscar", "Andrea"
+    };
+
+    private static final String[] APELLIDOS = {
+        "Quispe", "Flores", "Sánchez", "Rodríguez", "García", "Rojas", "Mamani", "Huamán", "Vásquez", "Chávez",
+        "Ramírez", "Torres", "Mendoza", "Castillo", "Díaz", "Gonzales", "Pérez", "López", "Gutiérrez", "Ramos",
+        "Espinoza", "Vargas", "Cruz", "Romero", "Salazar", "Morales", "Ruiz", "Castro", "Herrera", "Medina"
+    };
+
+    private static final String[] ESPECIALIDADES = {
+        "Medicina General", "Pediatría", "Cardiología", "Dermatología", "Ginecología", "Traumatología",
+        "Oftalmología", "Neurología", "Psiquiatría", "Endocrinología", "Gastroenterología", "Otorrinolaringología"
+    };
+
+    private static final String[] SEGUROS = {"SIS", "EsSalud", "Rímac", "Pacífico", "Mapfre", null};
+
+    private static final String[] MOTIVOS = {
+        "Control de rutina", "Dolor de cabeza persistente", "Evaluación de resultados", "Fiebre y malestar general",
+        "Dolor abdominal", "Control post operatorio", "Chequeo preventivo", "Dolor lumbar"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private OcupacionMedicoService ocupacionMedicoService;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Value("${sanacorp.generador.pacientes:20000}")
+    private int numeroPacientes;
+
+    @Value("${sanacorp.generador.medicos-por-especialidad:10}")
+    private int medicosPorEspecialidad;
+
+    @Value("${sanacorp.generador.consultorios:30}")
+    private int numeroConsultorios;
+
+    @Value("${sanacorp.generador.anios-historial:1}")
+    private int aniosHistorial;
+
+    @Value("${sanacorp.generador.dias-futuros:14}")
+    private int diasFuturos;
+
+    // Proporción de intervalos de atención con cita
+    @Value("${sanacorp.generador.ocupacion:0.6}")
+    private double ocupacion;
+
+    @Value("${sanacorp.generador.semilla:42}")
+    private long semilla;
+
+    @Value("${sanacorp.generador.tamano-lote:5000}")
+    private int tamanoLote;
+
+    @Value("${sanacorp.generador.usuario:secretario01}")
+    private String usuarioSecretario;
+
+    @Value("${sanacorp.generador.clave:password123}")
+    private String claveSecretario;
+
+    @Value("${sanacorp.generador.salida:target/generador}")
+    private String directorioSalida;
+
+    private Random aleatorio;
+
+    @Override
+    public void run(String... args) throws Exception {
+        long inicio = System.currentTimeMillis();
+        aleatorio = new Random(semilla);
+
+        crearUsuarioSecretario();
+        List<Long> especialidades = generarEspecialidades();
+        List<Long> consultorios = generarConsultorios();
+        List<Long> pacientes = generarPacientes();
+        List<Long> medicos = generarMedicos(especialidades);
+        generarHorarios(medicos);
+        List<Long> citasProgramadas = generarCitas(medicos, pacientes, consultorios);
+
+        reiniciarIdentidadesH2();
+        limpiarCaches();
+        escribirSalida(especialidades, consultorios, citasProgramadas);
+
+        logger.info("Datos sintéticos generados en {} s", (System.currentTimeMillis() - inicio) / 1000);
+    }
+
+    private void crearUsuarioSecretario() {
+        if (usuarioRepository.findByUsername(usuarioSecretario).isPresent()) {
+            return;
+        }
+        Rol rol = rolRepository.findByNombre("Secretario")
+            .orElseGet(() -> rolRepository.save(new Rol("Secretario", "Gestión de citas y pacientes")));
+
+        Usuario usuario = new Usuario(usuarioSecretario, passwordEncoder.encode(claveSecretario),
+                                      usuarioSecretario + "@sanacorp.com");
+        usuario.setEstado(1);
+        usuario.setFechaRegistro(LocalDateTime.now());
+        usuario.addRol(rol);
+        usuarioRepository.save(usuario);
+        logger.info("Usuario de pruebas de carga: {} / {}", usuarioSecretario, claveSecretario);
+    }
+
+    private List<Long> generarEspecialidades() {
+        List<Long> ids = new ArrayList<>();
+        long siguienteId = siguienteId("especialidades");
+        List<Object[]> filas = new ArrayList<>();
+        for (String nombre : ESPECIALIDADES) {
+            List<Long> existente = jdbcTemplate.queryForList(
+                "SELECT id FROM especialidades WHERE nombre = ?", Long.class, nombre);
+            if (existente.isEmpty()) {
+                filas.add(new Object[] {siguienteId, nombre, "Especialidad de " + nombre});
+                ids.add(siguienteId++);
+            } else {
+                ids.add(existente.get(0));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO especialidades (id, nombre, descripcion) VALUES (?, ?, ?)", filas);
+        return ids;
+    }
+
+    private List<Long> generarConsultorios() {
+        List<Long> ids = new ArrayList<>();
+        long siguienteId = siguienteId("consultorios");
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 1; i <= numeroConsultorios; i++) {
+            filas.add(new Object[] {siguienteId, "Consultorio G-" + siguienteId, "Piso " + (1 + i % 4)});
+            ids.add(siguienteId++);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO consultorios (id, nombre, ubicacion) VALUES (?, ?, ?)", filas);
+        return ids;
+    }
+
+    private List<Long> generarPacientes() {
+        List<Long> personas = insertarPersonas(numeroPacientes);
+        long siguienteId = siguienteId("pacientes");
+        List<Long> ids = new ArrayList<>(personas.size());
+        List<Object[]> filas = new ArrayList<>(tamanoLote);
+        for (Long idPersona : personas) {
+            filas.add(new Object[] {siguienteId, idPersona, SEGUROS[aleatorio.nextInt(SEGUROS.length)]});
+            ids.add(siguienteId++);
+            if (filas.size() == tamanoLote) {
+                jdbcTemplate.batchUpdate("INSERT INTO pacientes (id, id_persona, seguro_medico) VALUES (?, ?, ?)", filas);
+                filas.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pacientes (id, id_persona, seguro_medico) VALUES (?, ?, ?)", filas);
+        logger.info("Pacientes generados: {}", ids.size());
+        return ids;
+    }
+
+    private List<Long> generarMedicos(List<Long> especialidades) {
+        List<Long> personas = insertarPersonas(especialidades.size() * medicosPorEspecialidad);
+        long siguienteId = siguienteId("medicos");
+        List<Long> ids = new ArrayList<>(personas.size());
+        List<Object[]> filas = new ArrayList<>(personas.size());
+        for (int i = 0; i < personas.size(); i++) {
+            filas.add(new Object[] {siguienteId, personas.get(i), especialidades.get(i % especialidades.size())});
+            ids.add(siguienteId++);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO medicos (id, id_persona, especialidad_id) VALUES (?, ?, ?)", filas);
+        logger.info("Médicos generados: {}", ids.size());
+        return ids;
+    }
+
+    /**
+     * Turno de mañana de lunes a sábado y turno de tarde de lunes a viernes para dos de cada tres médicos
+     */
+    private void generarHorarios(List<Long> medicos) {
+        long siguienteId = siguienteId("horarios");
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < medicos.size(); i++) {
+            for (int dia = 1; dia <= 6; dia++) {
+                filas.add(new Object[] {siguienteId++, medicos.get(i), dia, "Mañana", LocalTime.of(8, 0), LocalTime.of(13, 0)});
+                if (dia <= 5 && i % 3 != 0) {
+                    filas.add(new Object[] {siguienteId++, medicos.get(i), dia, "Tarde", LocalTime.of(14, 0), LocalTime.of(18, 0)});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO horarios (id, id_medico, dia, turno, hora_inicio, hora_fin) VALUES (?, ?, ?, ?, ?, ?)", filas);
+    }
+
+    /**
+     * Recorre los días laborables del periodo y ocupa parte de los intervalos de cada médico
+     * Las citas pasadas quedan mayormente completadas, con cancelaciones e inasistencias;
+     * las futuras quedan programadas o confirmadas
+     * @return IDs de las citas futuras en estado PROGRAMADA
+     */
+    private List<Long> generarCitas(List<Long> medicos, List<Long> pacientes, List<Long> consultorios) {
+        String sql = "INSERT INTO citas (id, paciente_id, medico_id, consultorio_id, fecha_hora, estado, motivo_consulta, " +
+                     "fecha_registro, slot_activo, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate primerDia = ahora.toLocalDate().minusYears(aniosHistorial);
+        LocalDate ultimoDia = ahora.toLocalDate().plusDays(diasFuturos);
+
+        long siguienteId = siguienteId("citas");
+        long total = 0;
+        List<Long> programadas = new ArrayList<>();
+        List<Object[]> filas = new ArrayList<>(tamanoLote);
+
+        for (int m = 0; m < medicos.size(); m++) {
+            Long medicoId = medicos.get(m);
+            Long consultorioId = consultorios.get(m % consultorios.size());
+            boolean turnoTarde = m % 3 != 0;
+
+            for (LocalDate fecha = primerDia; !fecha.isAfter(ultimoDia); fecha = fecha.plusDays(1)) {
+                DayOfWeek dia = fecha.getDayOfWeek();
+                if (dia == DayOfWeek.SUNDAY) {
+                    continue;
+                }
+                int intervalos = turnoTarde && dia != DayOfWeek.SATURDAY ? 18 : 10;
+                for (int i = 0; i < intervalos; i++) {
+                    if (aleatorio.nextDouble() >= ocupacion) {
+                        continue;
+                    }
+                    LocalDateTime fechaHora = i < 10
+                        ? fecha.atTime(8, 0).plusMinutes(30L * i)
+                        : fecha.atTime(14, 0).plusMinutes(30L * (i - 10));
+                    EstadoCita estado = estadoAleatorio(fechaHora.isBefore(ahora));
+                    boolean activa = estado == EstadoCita.PROGRAMADA || estado == EstadoCita.CONFIRMADA;
+
+                    filas.add(new Object[] {
+                        siguienteId,
+                        pacientes.get(aleatorio.nextInt(pacientes.size())),
+                        medicoId,
+                        consultorioId,
+                        Timestamp.valueOf(fechaHora),
+                        estado.name(),
+                        MOTIVOS[aleatorio.nextInt(MOTIVOS.length)],
+                        Timestamp.valueOf(fechaHora.minusDays(1 + aleatorio.nextInt(20))),
+                        activa ? Timestamp.valueOf(Cita.inicioSlot(fechaHora)) : null
+                    });
+                    if (estado == EstadoCita.PROGRAMADA && !fechaHora.isBefore(ahora)) {
+                        programadas.add(siguienteId);
+                    }
+                    siguienteId++;
+
+                    if (filas.size() == tamanoLote) {
+                        jdbcTemplate.batchUpdate(sql, filas);
+                        total += filas.size();
+                        filas.clear();
+                    }
+                }
+            }
+            if ((m + 1) % 50 == 0) {
+                logger.info("Citas generadas: {} ({} de {} médicos)", total + filas.size(), m + 1, medicos.size());
+            }
+        }
+        jdbcTemplate.batchUpdate(sql, filas);
+        total += filas.size();
+        logger.info("Citas generadas: {}", total);
+        return programadas;
+    }
+
+    private EstadoCita estadoAleatorio(boolean pasada) {
+        int valor = aleatorio.nextInt(100);
+        if (pasada) {
+            return valor < 75 ? EstadoCita.COMPLETADA : valor < 88 ? EstadoCita.CANCELADA : EstadoCita.NO_ASISTIO;
+        }
+        return valor < 70 ? EstadoCita.PROGRAMADA : valor < 90 ? EstadoCita.CONFIRMADA : EstadoCita.CANCELADA;
+    }
+
+    /**
+     * Inserta personas con DNI correlativos a partir del mayor ID existente
+     * @return IDs de las personas insertadas
+     */
+    private List<Long> insertarPersonas(int cantidad) {
+        String sql = "INSERT INTO personas (id, dni, nombre, apellido, fecha_nacimiento, genero, telefono, direccion) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        long siguienteId = siguienteId("personas");
+        List<Long> ids = new ArrayList<>(cantidad);
+        List<Object[]> filas = new ArrayList<>(tamanoLote);
+        for (int i = 0; i < cantidad; i++) {
+            String nombre = NOMBRES[aleatorio.nextInt(NOMBRES.length)];
+            String apellido = APELLIDOS[aleatorio.nextInt(APELLIDOS.length)] + " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)];
+            filas.add(new Object[] {
+                siguienteId,
+                String.format("%08d", 70_000_000L + siguienteId),
+                nombre,
+                apellido,
+                LocalDate.of(1940 + aleatorio.nextInt(80), 1 + aleatorio.nextInt(12), 1 + aleatorio.nextInt(28)),
+                aleatorio.nextBoolean() ? "F" : "M",
+                "9" + (10_000_000 + aleatorio.nextInt(89_999_999)),
+                "Av. " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)] + " " + (100 + aleatorio.nextInt(1900))
+            });
+            ids.add(siguienteId++);
+            if (filas.size() == tamanoLote) {
+                jdbcTemplate.batchUpdate(sql, filas);
+                filas.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate(sql, filas);
+        return ids;
+    }
+
+    private long siguienteId(String tabla) {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class);
+        return (maximo != null ? maximo : 0L) + 1;
+    }
+
+    /**
+     * En H2 las columnas de identidad no avanzan con IDs explícitos; MySQL ajusta AUTO_INCREMENT por sí mismo
+     */
+    private void reiniciarIdentidadesH2() {
+        String producto = jdbcTemplate.execute(
+            (ConnectionCallback<String>) conexion -> conexion.getMetaData().getDatabaseProductName());
+        if (!"H2".equalsIgnoreCase(producto)) {
+            return;
+        }
+        for (String tabla : List.of("especialidades", "consultorios", "personas", "pacientes", "medicos", "horarios", "citas")) {
+            jdbcTemplate.execute("ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + siguienteId(tabla));
+        }
+    }
+
+    /**
+     * Los datos se insertaron con JDBC: descartar lo que las cachés hayan cargado antes
+     * El índice de búsqueda de personas se construye después, al quedar lista la aplicación
+     */
+    private void limpiarCaches() {
+        entityManagerFactory.getCache().evictAll();
+        ocupacionMedicoService.invalidarTodo();
+        estadisticasService.invalidar();
+        for (String nombre : cacheManager.getCacheNames()) {
+            cacheManager.getCache(nombre).clear();
+        }
+    }
+
+    private void escribirSalida(List<Long> especialidades, List<Long> consultorios, List<Long> citasProgramadas)
+            throws IOException {
+        Path directorio = Path.of(directorioSalida);
+        Files.createDirectories(directorio);
+
+        try (Writer escritor = Files.newBufferedWriter(directorio.resolve("datos.properties"), StandardCharsets.UTF_8)) {
+            escritor.write("usuario=" + usuarioSecretario + "\n");
+            escritor.write("especialidades=" + unir(especialidades) + "\n");
+            escritor.write("consultorios=" + unir(consultorios) + "\n");
+            escritor.write("citas-programadas=" + directorio.resolve("citas-programadas.txt").toAbsolutePath() + "\n");
+        }
+        Files.write(directorio.resolve("citas-programadas.txt"),
+                    citasProgramadas.stream().map(String::valueOf).collect(Collectors.toList()), StandardCharsets.UTF_8);
+        logger.info("Datos para la prueba de carga escritos en {}", directorio.toAbsolutePath());
+    }
+
+    private static String unir(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,88 @@
+package com.sanacorp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Map;
+
+/**
+ * Cuenta las sentencias SQL y el tiempo JDBC de cada petición atendida por un controlador,
+ * incluida la generación de la vista, y avisa en el log de las que superan el presupuesto
+ * Las sentencias repetidas muchas veces en una misma petición se listan como posibles consultas N+1
+ */
+public class PresupuestoSentenciasInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresupuestoSentenciasInterceptor.class);
+
+    // Atributo de la petición que indica que este interceptor abrió la medición
+    private static final String ATRIBUTO_MEDICION = PresupuestoSentenciasInterceptor.class.getName() + ".medicion";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maximoSentencias;
+
+    private final long maximoMilisegundos;
+
+    private final int maximoRepeticiones;
+
+    public PresupuestoSentenciasInterceptor(MeterRegistry meterRegistry, int maximoSentencias,
+                                            long maximoMilisegundos, int maximoRepeticiones) {
+        this.meterRegistry = meterRegistry;
+        this.maximoSentencias = maximoSentencias;
+        this.maximoMilisegundos = maximoMilisegundos;
+        this.maximoRepeticiones = maximoRepeticiones;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod metodo && ContadorSentencias.iniciar(nombreMetodo(metodo))) {
+            request.setAttribute(ATRIBUTO_MEDICION, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ATRIBUTO_MEDICION) == null) {
+            return;
+        }
+        request.removeAttribute(ATRIBUTO_MEDICION);
+        ContadorSentencias.Medicion medicion = ContadorSentencias.terminar();
+        if (medicion == null) {
+            return;
+        }
+
+        DistributionSummary.builder("sanacorp.sql.sentencias")
+            .description("Sentencias SQL por petición")
+            .tag("controlador", medicion.getOrigen())
+            .register(meterRegistry)
+            .record(medicion.getSentencias());
+
+        boolean excedida = medicion.getSentencias() > maximoSentencias
+            || medicion.getMilisegundos() > maximoMilisegundos
+            || medicion.getMaximoRepeticiones() > maximoRepeticiones;
+        if (!excedida) {
+            return;
+        }
+
+        StringBuilder repetidas = new StringBuilder();
+        for (Map.Entry<String, Integer> repetida : medicion.getSentenciasRepetidas(maximoRepeticiones + 1)) {
+            repetidas.append("\n  posible N+1, ").append(repetida.getValue()).append(" veces: ").append(repetida.getKey());
+        }
+        logger.warn("Presupuesto SQL superado en {} {} ({}): {} sentencias en {} ms (máximo {} sentencias, {} ms){}",
+                    request.getMethod(), request.getRequestURI(), medicion.getOrigen(),
+                    medicion.getSentencias(), medicion.getMilisegundos(),
+                    maximoSentencias, maximoMilisegundos, repetidas);
+    }
+
+    private static String nombreMetodo(HandlerMethod metodo) {
+        return metodo.getBeanType().getSimpleName() + "#" + metodo.getMethod().getName();
+    }
+}
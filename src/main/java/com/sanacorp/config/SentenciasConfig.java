@@ -0,0 +1,52 @@
+package com.sanacorp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Presupuesto de sentencias SQL por petición HTTP
+ * Registra ContadorSentencias en Hibernate y PresupuestoSentenciasInterceptor en Spring MVC
+ */
+@Configuration
+@ConditionalOnProperty(name = "sanacorp.sql.presupuesto.habilitado", havingValue = "true", matchIfMissing = true)
+public class SentenciasConfig implements WebMvcConfigurer {
+
+    @Value("${sanacorp.sql.presupuesto.sentencias:25}")
+    private int maximoSentencias;
+
+    @Value("${sanacorp.sql.presupuesto.tiempo-ms:300}")
+    private long maximoMilisegundos;
+
+    @Value("${sanacorp.sql.presupuesto.repeticiones:5}")
+    private int maximoRepeticiones;
+
+    private final MeterRegistry meterRegistry;
+
+    public SentenciasConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * El inspector es una única instancia compartida; el listener de sesión se crea por cada sesión
+     */
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasCustomizer() {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSentencias());
+            propiedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, ContadorSentencias.class.getName());
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PresupuestoSentenciasInterceptor(
+            meterRegistry, maximoSentencias, maximoMilisegundos, maximoRepeticiones));
+    }
+}
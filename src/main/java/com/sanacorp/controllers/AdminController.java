@@ -1,16 +1,30 @@
 package com.sanacorp.controllers;
 
+import com.sanacorp.models.Cita.EstadoCita;
 import com.sanacorp.services.CitaService;
 import com.sanacorp.services.ConsultorioService;
 import com.sanacorp.services.EspecialidadService;
+import com.sanacorp.services.EstadisticasService;
+import com.sanacorp.services.ExportacionService;
+import com.sanacorp.services.ExportacionService.FormatoExportacion;
+import com.sanacorp.services.ImportacionPacientesService;
 import com.sanacorp.services.MedicoService;
 import com.sanacorp.services.PacienteService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 /**
  * Controlador del módulo Administrador
@@ -38,6 +52,15 @@ public class AdminController {
     
     @Autowired
     private ConsultorioService consultorioService;
+    
+    @Autowired
+    private EstadisticasService estadisticasService;
+    
+    @Autowired
+    private ExportacionService exportacionService;
+    
+    @Autowired
+    private ImportacionPacientesService importacionPacientesService;
 
     /**
      * Dashboard principal del administrador
@@ -49,21 +72,16 @@ public class AdminController {
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         try {
-            // Obtener estadísticas generales usando los métodos disponibles
-            long totalMedicos = medicoService.listarTodos().size();
-            long totalPacientes = pacienteService.getAllPacientes().size();
-            long totalEspecialidades = especialidadService.listarTodas().size();
-            long totalConsultorios = consultorioService.getAllConsultoriosActivos().size();
-            long totalCitas = citaService.getCitasDelDia().size();
-            long citasHoy = citaService.getCitasPorFecha(java.time.LocalDate.now()).size();
+            // Obtener estadísticas generales mediante consultas COUNT
+            EstadisticasService.EstadisticasAdmin estadisticas = estadisticasService.getEstadisticasAdmin();
             
             // Agregar estadísticas al modelo
-            model.addAttribute("totalMedicos", totalMedicos);
-            model.addAttribute("totalPacientes", totalPacientes);
-            model.addAttribute("totalEspecialidades", totalEspecialidades);
-            model.addAttribute("totalConsultorios", totalConsultorios);
-            model.addAttribute("totalCitas", totalCitas);
-            model.addAttribute("citasHoy", citasHoy);
+            model.addAttribute("totalMedicos", estadisticas.getTotalMedicos());
+            model.addAttribute("totalPacientes", estadisticas.getTotalPacientes());
+            model.addAttribute("totalEspecialidades", estadisticas.getTotalEspecialidades());
+            model.addAttribute("totalConsultorios", estadisticas.getTotalConsultorios());
+            model.addAttribute("totalCitas", estadisticas.getTotalCitas());
+            model.addAttribute("citasHoy", estadisticas.getCitasHoy());
             
         } catch (Exception e) {
             // En caso de error, mostrar valores por defecto
@@ -114,6 +132,73 @@ public class AdminController {
         return "admin/reportes";
     }
 
+    /**
+     * Exporta las citas de un rango de fechas, opcionalmente de un médico y un estado
+     * Sin rango exporta los últimos 30 días
+     */
+    @GetMapping("/exportar/citas")
+    public void exportarCitas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Long medicoId,
+            @RequestParam(required = false) EstadoCita estado,
+            @RequestParam(defaultValue = "EXCEL") FormatoExportacion formato,
+            HttpServletResponse response) throws IOException {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(30);
+        try {
+            exportacionService.validarRango(inicio, fin);
+        } catch (RuntimeException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        
+        prepararDescarga(response, "citas_" + inicio + "_" + fin + ".csv");
+        exportacionService.exportarCitas(inicio, fin, medicoId, estado, formato, response.getOutputStream());
+    }
+    
+    /**
+     * Exporta todos los pacientes
+     */
+    @GetMapping("/exportar/pacientes")
+    public void exportarPacientes(@RequestParam(defaultValue = "EXCEL") FormatoExportacion formato,
+                                  HttpServletResponse response) throws IOException {
+        prepararDescarga(response, "pacientes_" + LocalDate.now() + ".csv");
+        exportacionService.exportarPacientes(formato, response.getOutputStream());
+    }
+    
+    private static void prepararDescarga(HttpServletResponse response, String archivo) {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + archivo + "\"");
+        response.setHeader("Cache-Control", "no-store");
+    }
+
+    /**
+     * Formulario de importación masiva de pacientes
+     */
+    @GetMapping("/importar/pacientes")
+    public String importarPacientes() {
+        return "admin/importar-pacientes";
+    }
+    
+    /**
+     * Importa pacientes desde un archivo CSV y muestra el reporte de la importación
+     */
+    @PostMapping("/importar/pacientes")
+    public String importarPacientes(@RequestParam("archivo") MultipartFile archivo, Model model) {
+        if (archivo.isEmpty()) {
+            model.addAttribute("error", "Seleccione un archivo CSV con pacientes");
+            return "admin/importar-pacientes";
+        }
+        
+        try (InputStream entrada = archivo.getInputStream()) {
+            model.addAttribute("resultado", importacionPacientesService.importarCsv(entrada));
+        } catch (IOException | RuntimeException e) {
+            model.addAttribute("error", "No se pudo importar el archivo: " + e.getMessage());
+        }
+        return "admin/importar-pacientes";
+    }
+
     /**
      * Configuración del sistema
      */
@@ -1,5 +1,11 @@
 package com.sanacorp.controllers;
 
+import com.sanacorp.dto.DisponibilidadMedico;
+import com.sanacorp.dto.HorarioLibre;
+import com.sanacorp.dto.MedicoResumen;
+import com.sanacorp.dto.PacienteResumen;
+import com.sanacorp.dto.PacienteSugerencia;
+import com.sanacorp.dto.ResultadoTransicionCita;
 import com.sanacorp.models.Cita;
 import com.sanacorp.models.Cita.EstadoCita;
 import com.sanacorp.models.Consultorio;
@@ -9,10 +15,13 @@ import com.sanacorp.models.Paciente;
 import com.sanacorp.models.Persona;
 import com.sanacorp.services.CitaService;
 import com.sanacorp.services.ConsultorioService;
+import com.sanacorp.services.DisponibilidadService;
 import com.sanacorp.services.EspecialidadService;
 import com.sanacorp.services.MedicoService;
+import com.sanacorp.services.MetricasService;
 import com.sanacorp.services.PacienteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -24,6 +33,7 @@ import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,6 +60,31 @@ public class SecretarioController {
     @Autowired
     private ConsultorioService consultorioService;
     
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+    
+    @Autowired
+    private MetricasService metricasService;
+    
+    // Número de pacientes por página en el listado
+    @Value("${sanacorp.pacientes.tamano-pagina:50}")
+    private int tamanoPaginaPacientes;
+    
+    // Reserva optimista: la restricción única de la base de datos detecta los horarios ocupados
+    @Value("${sanacorp.citas.reserva.optimista:false}")
+    private boolean reservaOptimista;
+    
+    // Número máximo de pacientes por página que se puede solicitar
+    private static final int TAMANO_MAXIMO_PAGINA = 200;
+    
+    // Número de sugerencias devueltas por defecto y máximo permitido en el autocompletado
+    private static final int LIMITE_SUGERENCIAS = 10;
+    private static final int LIMITE_MAXIMO_SUGERENCIAS = 25;
+    
+    // Número de horarios libres devueltos por defecto y máximo permitido por especialidad
+    private static final int LIMITE_HORARIOS = 10;
+    private static final int LIMITE_MAXIMO_HORARIOS = 50;
+    
     /**
      * Dashboard principal del secretario
      */
@@ -79,6 +114,20 @@ public class SecretarioController {
         }
     }
     
+    /**
+     * Estadísticas de citas para un rango de fechas (AJAX)
+     * Sin parámetros devuelve las del día actual; sirve también para vistas semanales y mensuales
+     */
+    @GetMapping("/estadisticas")
+    @ResponseBody
+    public CitaService.CitaEstadisticas getEstadisticas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        LocalDate inicio = desde != null ? desde : LocalDate.now();
+        LocalDate fin = hasta != null ? hasta : inicio;
+        return citaService.getEstadisticasCitas(inicio, fin);
+    }
+    
     // ==================== GESTIÓN DE CITAS ====================
     
     /**
@@ -125,10 +174,7 @@ public class SecretarioController {
     public String nuevaCitaForm(Model model) {
         try {
             model.addAttribute("cita", new Cita());
-            model.addAttribute("pacientes", pacienteService.getAllPacientes());
-            model.addAttribute("medicos", medicoService.getAllMedicosActivos());
-            model.addAttribute("especialidades", especialidadService.getAllEspecialidadesActivas());
-            model.addAttribute("consultorios", consultorioService.getAllConsultoriosActivos());
+            cargarDatosFormularioCita(model);
             
             return "secretario/form-cita";
         } catch (Exception e) {
@@ -147,19 +193,31 @@ public class SecretarioController {
             @RequestParam Long pacienteId,
             @RequestParam Long medicoId,
             @RequestParam Long consultorioId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hora,
+            @RequestParam String fecha,
+            @RequestParam String hora,
+            @RequestParam(defaultValue = "false") boolean reintentar,
             RedirectAttributes redirectAttributes,
             Model model) {
-        
-        if (result.hasErrors()) {
-            model.addAttribute("pacientes", pacienteService.getAllPacientes());
-            model.addAttribute("medicos", medicoService.getAllMedicosActivos());
-            model.addAttribute("especialidades", especialidadService.getAllEspecialidadesActivas());
-            model.addAttribute("consultorios", consultorioService.getAllConsultoriosActivos());
+
+        // fechaHora no viaja en el formulario: se arma a partir de fecha y hora, que se leen como texto
+        // para mostrar un formato inválido en el formulario en lugar de rechazar la petición
+        LocalDateTime fechaHora = armarFechaHora(fecha, hora);
+        boolean fechaHoraInvalida = fechaHora == null || result.getFieldErrors("fechaHora").stream()
+            .anyMatch(error -> !"NotNull".equals(error.getCode()));
+        if (fechaHoraInvalida) {
+            model.addAttribute("error", "La fecha u hora de la cita no es válida");
+            cargarDatosFormularioCita(model);
             return "secretario/form-cita";
         }
-        
+
+        // Con fecha y hora válidas, el único error admitido en fechaHora es el de obligatorio
+        boolean hayErrores = result.hasGlobalErrors() || result.getFieldErrors().stream()
+            .anyMatch(error -> !"fechaHora".equals(error.getField()));
+        if (hayErrores) {
+            cargarDatosFormularioCita(model);
+            return "secretario/form-cita";
+        }
+
         try {
             // Obtener entidades relacionadas
             Optional<Paciente> paciente = pacienteService.getPacienteById(pacienteId);
@@ -168,10 +226,7 @@ public class SecretarioController {
             
             if (paciente.isEmpty() || medico.isEmpty() || consultorio.isEmpty()) {
                 model.addAttribute("error", "Error: Paciente, médico o consultorio no encontrado");
-                model.addAttribute("pacientes", pacienteService.getAllPacientes());
-                model.addAttribute("medicos", medicoService.getAllMedicosActivos());
-                model.addAttribute("especialidades", especialidadService.getAllEspecialidadesActivas());
-                model.addAttribute("consultorios", consultorioService.getAllConsultoriosActivos());
+                cargarDatosFormularioCita(model);
                 return "secretario/form-cita";
             }
             
@@ -179,24 +234,56 @@ public class SecretarioController {
             cita.setPaciente(paciente.get());
             cita.setMedico(medico.get());
             cita.setConsultorio(consultorio.get());
-            cita.setFechaHora(LocalDateTime.of(fecha, hora));
+            cita.setFechaHora(fechaHora);
             
             // Registrar la cita
-            citaService.registrarNuevaCita(cita);
+            if (reservaOptimista) {
+                CitaService.ResultadoReserva reserva = citaService.reservarCitaOptimista(cita, reintentar);
+                if (!reserva.isReservada()) {
+                    model.addAttribute("error", "Error al registrar la cita: " + reserva.getMensaje());
+                    cargarDatosFormularioCita(model);
+                    return "secretario/form-cita";
+                }
+                if (reserva.isReprogramada()) {
+                    redirectAttributes.addFlashAttribute("success",
+                        "Cita registrada exitosamente en el siguiente horario libre: " + reserva.getCita().getFechaHora());
+                    return "redirect:/secretario/citas";
+                }
+            } else {
+                citaService.registrarNuevaCita(cita);
+            }
             
             redirectAttributes.addFlashAttribute("success", "Cita registrada exitosamente");
             return "redirect:/secretario/citas";
             
         } catch (Exception e) {
             model.addAttribute("error", "Error al registrar la cita: " + e.getMessage());
-            model.addAttribute("pacientes", pacienteService.getAllPacientes());
-            model.addAttribute("medicos", medicoService.getAllMedicosActivos());
-            model.addAttribute("especialidades", especialidadService.getAllEspecialidadesActivas());
-            model.addAttribute("consultorios", consultorioService.getAllConsultoriosActivos());
+            cargarDatosFormularioCita(model);
             return "secretario/form-cita";
         }
     }
     
+    /**
+     * Combina la fecha (yyyy-MM-dd) y la hora (HH:mm) del formulario de citas
+     * @return Fecha y hora de la cita, o null si alguna no tiene un formato válido
+     */
+    private static LocalDateTime armarFechaHora(String fecha, String hora) {
+        try {
+            return LocalDateTime.of(LocalDate.parse(fecha), LocalTime.parse(hora));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Carga los catálogos del formulario de citas
+     * Pacientes y médicos no se incluyen: el formulario los obtiene mediante autocompletado
+     */
+    private void cargarDatosFormularioCita(Model model) {
+        model.addAttribute("especialidades", especialidadService.getAllEspecialidadesActivas());
+        model.addAttribute("consultorios", consultorioService.getAllConsultoriosActivos());
+    }
+    
     /**
      * Confirmar una cita
      */
@@ -262,14 +349,35 @@ public class SecretarioController {
         return "redirect:/secretario/citas";
     }
     
+    /**
+     * Aplicar una misma transición de estado a varias citas (AJAX)
+     * Devuelve el resultado de cada cita para que la vista marque las que no pudieron procesarse
+     */
+    @PostMapping("/api/citas/transiciones")
+    @ResponseBody
+    public List<ResultadoTransicionCita> aplicarTransicionMasiva(
+            @RequestParam List<Long> ids,
+            @RequestParam CitaService.TransicionCita transicion,
+            @RequestParam(required = false) String observaciones) {
+        try {
+            return citaService.aplicarTransicionMasiva(ids, transicion, observaciones);
+        } catch (Exception e) {
+            return ids.stream()
+                .map(id -> new ResultadoTransicionCita(id, false, e.getMessage()))
+                .toList();
+        }
+    }
+    
     // ==================== GESTIÓN DE PACIENTES ====================
     
     /**
-     * Lista todos los pacientes
+     * Lista los pacientes por páginas
      */
     @GetMapping("/pacientes")
     public String listarPacientes(
             @RequestParam(required = false) String busqueda,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
             Model model) {
         try {
             List<Paciente> pacientes;
@@ -277,7 +385,11 @@ public class SecretarioController {
             if (busqueda != null && !busqueda.trim().isEmpty()) {
                 pacientes = pacienteService.buscarPacientes(busqueda.trim());
             } else {
-                pacientes = pacienteService.getAllPacientes();
+                int tamanoPagina = tamano != null ? Math.max(1, Math.min(tamano, TAMANO_MAXIMO_PAGINA)) : tamanoPaginaPacientes;
+                PacienteService.PaginaPacientes pagina = pacienteService.listarPacientesPorPagina(cursor, tamanoPagina);
+                pacientes = pagina.getPacientes();
+                model.addAttribute("siguienteCursor", pagina.getSiguienteCursor());
+                model.addAttribute("tamano", tamanoPagina);
             }
             
             model.addAttribute("pacientes", pacientes);
@@ -362,23 +474,89 @@ public class SecretarioController {
      */
     @GetMapping("/pacientes/buscar-dni")
     @ResponseBody
-    public Paciente buscarPacientePorDni(@RequestParam String dni) {
+    public PacienteResumen buscarPacientePorDni(@RequestParam String dni) {
         try {
-            Optional<Paciente> paciente = pacienteService.buscarPorDni(dni);
-            return paciente.orElse(null);
+            return pacienteService.buscarResumenPorDni(dni).orElse(null);
         } catch (Exception e) {
             return null;
         }
     }
     
+    /**
+     * Sugerencias de pacientes para autocompletado (AJAX)
+     */
+    @GetMapping("/api/pacientes/suggest")
+    @ResponseBody
+    public List<PacienteSugerencia> sugerirPacientes(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limite) {
+        return pacienteService.sugerirPacientes(q, limiteSugerencias(limite));
+    }
+    
+    /**
+     * Sugerencias de médicos para autocompletado (AJAX)
+     */
+    @GetMapping("/api/medicos/suggest")
+    @ResponseBody
+    public List<MedicoResumen> sugerirMedicos(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return medicoService.sugerirMedicos(q, limiteSugerencias(limite));
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+    
+    private static int limiteSugerencias(Integer limite) {
+        return limite != null ? Math.max(1, Math.min(limite, LIMITE_MAXIMO_SUGERENCIAS)) : LIMITE_SUGERENCIAS;
+    }
+    
     /**
      * Obtener médicos por especialidad (AJAX)
      */
     @GetMapping("/medicos/por-especialidad")
     @ResponseBody
-    public List<Medico> getMedicosPorEspecialidad(@RequestParam Long especialidadId) {
+    public List<MedicoResumen> getMedicosPorEspecialidad(@RequestParam Long especialidadId) {
+        try {
+            return medicoService.getResumenMedicosPorEspecialidad(especialidadId);
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+    
+    /**
+     * Horarios libres de uno o varios médicos en un rango de fechas (AJAX)
+     */
+    @GetMapping("/medicos/disponibilidad")
+    @ResponseBody
+    public List<DisponibilidadMedico> getHorariosLibres(
+            @RequestParam List<Long> medicoIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
         try {
-            return medicoService.getMedicosPorEspecialidad(especialidadId);
+            return disponibilidadService.getHorariosLibres(medicoIds, desde, hasta != null ? hasta : desde);
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+    
+    /**
+     * Primeros horarios libres entre los médicos de una especialidad (AJAX)
+     * Sin rango explícito busca desde ahora hasta siete días después
+     */
+    @GetMapping("/especialidades/{id}/primeros-horarios")
+    @ResponseBody
+    public List<HorarioLibre> buscarPrimerosHorariosLibres(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) Integer cantidad) {
+        try {
+            LocalDateTime inicio = desde != null ? desde : LocalDateTime.now();
+            LocalDateTime fin = hasta != null ? hasta : inicio.plusDays(7);
+            int limite = cantidad != null ? Math.max(1, Math.min(cantidad, LIMITE_MAXIMO_HORARIOS)) : LIMITE_HORARIOS;
+            return disponibilidadService.buscarPrimerosHorariosLibres(id, inicio, fin, limite);
         } catch (Exception e) {
             return List.of();
         }
@@ -394,18 +572,25 @@ public class SecretarioController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hora) {
         try {
-            List<Cita> citasExistentes = citaService.getCitasPorMedicoYFecha(id, fecha);
-            LocalTime horaFin = hora.plusMinutes(30); // Duración estándar de 30 minutos
-            
-            // Verificar si hay conflictos de horario
-            return citasExistentes.stream().noneMatch(cita -> {
-                LocalTime citaInicio = cita.getFechaHora().toLocalTime();
-                LocalTime citaFin = citaInicio.plusMinutes(30);
-                
-                return (hora.isBefore(citaFin) && horaFin.isAfter(citaInicio));
-            });
+            return metricasService.medirDisponibilidad("verificar",
+                () -> horarioSinConflictos(citaService.getCitasPorMedicoYFecha(id, fecha), hora));
         } catch (Exception e) {
             return false;
         }
     }
+    
+    /**
+     * Verifica que una cita de duración estándar a la hora indicada no se solape con las citas existentes
+     */
+    static boolean horarioSinConflictos(List<Cita> citasExistentes, LocalTime hora) {
+        LocalTime horaFin = hora.plusMinutes(30); // Duración estándar de 30 minutos
+        
+        // Verificar si hay conflictos de horario
+        return citasExistentes.stream().noneMatch(cita -> {
+            LocalTime citaInicio = cita.getFechaHora().toLocalTime();
+            LocalTime citaFin = citaInicio.plusMinutes(30);
+            
+            return (hora.isBefore(citaFin) && horaFin.isAfter(citaInicio));
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.sanacorp.dto;
+
+import com.sanacorp.models.Cita.EstadoCita;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la exportación de citas
+ * @param idCita ID de la cita
+ * @param fechaHora Fecha y hora de la cita
+ * @param estado Estado de la cita
+ * @param dniPaciente DNI del paciente
+ * @param paciente Nombre y apellido del paciente
+ * @param medico Nombre y apellido del médico
+ * @param especialidad Especialidad del médico
+ * @param consultorio Nombre del consultorio, o null
+ * @param motivo Motivo de la consulta
+ * @param observaciones Observaciones de la cita
+ */
+public record CitaExportacion(Long idCita, LocalDateTime fechaHora, EstadoCita estado, String dniPaciente,
+                              String paciente, String medico, String especialidad, String consultorio,
+                              String motivo, String observaciones) {
+}
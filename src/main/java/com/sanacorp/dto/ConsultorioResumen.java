@@ -0,0 +1,10 @@
+package com.sanacorp.dto;
+
+/**
+ * Datos de un consultorio para listados y selectores; inmutable, se guarda en caché
+ * @param id ID del consultorio
+ * @param nombre Nombre del consultorio
+ * @param ubicacion Ubicación del consultorio
+ */
+public record ConsultorioResumen(Long id, String nombre, String ubicacion) {
+}
@@ -0,0 +1,12 @@
+package com.sanacorp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Horarios libres de un médico en un rango de fechas
+ * @param medicoId ID del médico
+ * @param horariosLibres Fecha y hora de inicio de cada intervalo libre, en orden cronológico
+ */
+public record DisponibilidadMedico(Long medicoId, List<LocalDateTime> horariosLibres) {
+}
@@ -0,0 +1,10 @@
+package com.sanacorp.dto;
+
+/**
+ * Datos de una especialidad para listados y selectores; inmutable, se guarda en caché
+ * @param id ID de la especialidad
+ * @param nombre Nombre de la especialidad
+ * @param descripcion Descripción de la especialidad
+ */
+public record EspecialidadResumen(Long id, String nombre, String descripcion) {
+}
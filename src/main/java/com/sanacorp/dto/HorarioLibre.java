@@ -0,0 +1,12 @@
+package com.sanacorp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Intervalo libre de un médico para programar una cita
+ * @param medicoId ID del médico
+ * @param medico Nombre completo del médico
+ * @param fechaHora Fecha y hora de inicio del intervalo
+ */
+public record HorarioLibre(Long medicoId, String medico, LocalDateTime fechaHora) {
+}
@@ -0,0 +1,11 @@
+package com.sanacorp.dto;
+
+/**
+ * Datos mínimos de un médico para respuestas JSON y autocompletado
+ * @param id ID del médico
+ * @param dni DNI del médico
+ * @param nombreCompleto Nombre y apellido del médico
+ * @param especialidad Nombre de la especialidad del médico
+ */
+public record MedicoResumen(Long id, String dni, String nombreCompleto, String especialidad) {
+}
@@ -0,0 +1,19 @@
+package com.sanacorp.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de la exportación de pacientes
+ * @param id ID del paciente
+ * @param dni DNI del paciente
+ * @param nombre Nombre del paciente
+ * @param apellido Apellido del paciente
+ * @param fechaNacimiento Fecha de nacimiento
+ * @param genero Género ('M' o 'F')
+ * @param telefono Teléfono de contacto
+ * @param direccion Dirección
+ * @param seguroMedico Seguro médico
+ */
+public record PacienteExportacion(Long id, String dni, String nombre, String apellido, LocalDate fechaNacimiento,
+                                  String genero, String telefono, String direccion, String seguroMedico) {
+}
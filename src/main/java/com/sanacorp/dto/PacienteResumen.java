@@ -0,0 +1,14 @@
+package com.sanacorp.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Datos mínimos de un paciente para respuestas JSON
+ * @param id ID del paciente
+ * @param dni DNI del paciente
+ * @param nombreCompleto Nombre y apellido del paciente
+ * @param telefono Teléfono de contacto
+ * @param fechaNacimiento Fecha de nacimiento
+ */
+public record PacienteResumen(Long id, String dni, String nombreCompleto, String telefono, LocalDate fechaNacimiento) {
+}
@@ -0,0 +1,10 @@
+package com.sanacorp.dto;
+
+/**
+ * Datos mínimos de un paciente para el autocompletado de formularios
+ * @param id ID del paciente
+ * @param dni DNI del paciente
+ * @param nombreCompleto Nombre y apellido del paciente
+ */
+public record PacienteSugerencia(Long id, String dni, String nombreCompleto) {
+}
@@ -0,0 +1,10 @@
+package com.sanacorp.dto;
+
+/**
+ * Resultado de una transición de estado sobre una cita dentro de un proceso masivo
+ * @param idCita ID de la cita
+ * @param aplicada true si la cita cambió al estado solicitado
+ * @param mensaje Motivo por el que no se aplicó la transición, o null si se aplicó
+ */
+public record ResultadoTransicionCita(Long idCita, boolean aplicada, String mensaje) {
+}
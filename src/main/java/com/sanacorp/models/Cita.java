@@ -4,15 +4,27 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Entidad que representa las citas médicas
  * Basada en la tabla 'citas' de la base de datos
  */
 @Entity
-@Table(name = "citas")
+@Table(name = "citas", indexes = {
+    @Index(name = "idx_cita_medico_fecha", columnList = "medico_id, fecha_hora"),
+    @Index(name = "idx_cita_fecha", columnList = "fecha_hora"),
+    @Index(name = "idx_cita_estado_fecha", columnList = "estado, fecha_hora")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_cita_medico_slot_activo", columnNames = {"medico_id", "slot_activo"})
+})
 public class Cita {
     
+    // Estados desde los que se permite cada transición
+    public static final Set<EstadoCita> ESTADOS_CANCELABLES = EnumSet.of(EstadoCita.PROGRAMADA, EstadoCita.CONFIRMADA);
+    public static final Set<EstadoCita> ESTADOS_COMPLETABLES = EnumSet.of(EstadoCita.CONFIRMADA, EstadoCita.EN_CURSO);
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -38,6 +50,16 @@ public class Cita {
     @Column(name = "fecha_registro", nullable = false)
     private LocalDateTime fechaCreacion;
     
+    // Inicio del intervalo de 30 minutos ocupado mientras la cita está activa; NULL en otro caso.
+    // La restricción única (medico_id, slot_activo) impide en la base de datos dos citas activas en el mismo horario
+    @Column(name = "slot_activo")
+    private LocalDateTime slotActivo;
+    
+    // Nula hasta el primer guardado, para que Spring Data trate la cita como nueva (persist y no merge)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // Relación Many-to-One con Paciente
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", referencedColumnName = "id", nullable = false)
@@ -160,7 +182,35 @@ public class Cita {
         this.consultorio = consultorio;
     }
     
+    public LocalDateTime getSlotActivo() {
+        return slotActivo;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    // Sincroniza el intervalo ocupado con la fecha y el estado antes de guardar
+    @PrePersist
+    @PreUpdate
+    protected void actualizarSlotActivo() {
+        slotActivo = ocupaHorario() && fechaHora != null ? inicioSlot(fechaHora) : null;
+    }
+    
+    /**
+     * Obtiene el inicio del intervalo de 30 minutos que contiene la fecha y hora indicada
+     * @param fechaHora Fecha y hora
+     * @return Fecha y hora truncada al intervalo de 30 minutos
+     */
+    public static LocalDateTime inicioSlot(LocalDateTime fechaHora) {
+        return fechaHora.withSecond(0).withNano(0).withMinute(fechaHora.getMinute() / 30 * 30);
+    }
+    
     // Métodos de utilidad
+    public boolean ocupaHorario() {
+        return estado == EstadoCita.PROGRAMADA || estado == EstadoCita.CONFIRMADA || estado == EstadoCita.EN_CURSO;
+    }
+    
     public boolean isProgramada() {
         return estado == EstadoCita.PROGRAMADA;
     }
@@ -178,11 +228,11 @@ public class Cita {
     }
     
     public boolean puedeSerCancelada() {
-        return estado == EstadoCita.PROGRAMADA || estado == EstadoCita.CONFIRMADA;
+        return ESTADOS_CANCELABLES.contains(estado);
     }
     
     public boolean puedeSerCompletada() {
-        return estado == EstadoCita.CONFIRMADA || estado == EstadoCita.EN_CURSO;
+        return ESTADOS_COMPLETABLES.contains(estado);
     }
     
     @Override
@@ -1,6 +1,8 @@
 package com.sanacorp.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.util.ArrayList;
@@ -12,6 +14,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "consultorios")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "consultorios")
 public class Consultorio {
     
     @Id
@@ -1,6 +1,8 @@
 package com.sanacorp.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,6 +12,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "especialidades")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "especialidades")
 public class Especialidad {
     
     @Id
@@ -1,6 +1,8 @@
 package com.sanacorp.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalTime;
 
@@ -10,6 +12,8 @@ import java.time.LocalTime;
  */
 @Entity
 @Table(name = "horarios")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "horarios")
 public class Horario {
     
     @Id
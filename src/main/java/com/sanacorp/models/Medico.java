@@ -1,6 +1,8 @@
 package com.sanacorp.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,6 +12,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "medicos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "medicos")
 public class Medico {
     
     @Id
@@ -29,6 +33,7 @@ public class Medico {
     
     // Relación One-to-Many con Horario
     @OneToMany(mappedBy = "medico", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "medicos-horarios")
     private List<Horario> horarios = new ArrayList<>();
     
     // Relación One-to-Many con Cita
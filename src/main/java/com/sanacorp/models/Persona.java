@@ -11,7 +11,9 @@ import java.time.LocalDate;
  * Basada en la tabla 'personas' de la base de datos
  */
 @Entity
-@Table(name = "personas")
+@Table(name = "personas", indexes = {
+    @Index(name = "idx_persona_apellido_nombre", columnList = "apellido, nombre")
+})
 public class Persona {
     
     @Id
@@ -1,5 +1,6 @@
 package com.sanacorp.models;
 
+import com.sanacorp.security.UsuarioCacheListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -13,6 +14,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "usuarios")
+@EntityListeners(UsuarioCacheListener.class)
 public class Usuario {
     
     @Id
@@ -43,6 +45,12 @@ public class Usuario {
     @Column(name = "ultimo_acceso")
     private LocalDateTime ultimoAcceso;
     
+    // Un cambio solo en los roles incrementa la versión y actualiza la fila, de modo que
+    // UsuarioCacheListener también se entera de él
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // Relación Many-to-Many con Rol
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
@@ -121,6 +129,10 @@ public class Usuario {
         this.ultimoAcceso = ultimoAcceso;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     public Set<Rol> getRoles() {
         return roles;
     }
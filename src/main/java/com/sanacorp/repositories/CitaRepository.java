@@ -2,12 +2,15 @@ package com.sanacorp.repositories;
 
 import com.sanacorp.models.Cita;
 import com.sanacorp.models.Cita.EstadoCita;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,17 +20,56 @@ import java.util.List;
 @Repository
 public interface CitaRepository extends JpaRepository<Cita, Long> {
     
+    /**
+     * Busca citas en un rango de fecha y hora semiabierto [inicio, fin)
+     * La condición sobre la columna sin transformar permite usar el índice sobre fecha_hora
+     * @param inicio Fecha y hora inicial (inclusive)
+     * @param fin Fecha y hora final (exclusive)
+     * @return Lista de citas en el rango especificado
+     */
+    @Query("SELECT c FROM Cita c JOIN FETCH c.paciente p JOIN FETCH p.persona per LEFT JOIN FETCH per.medico " +
+           "JOIN FETCH c.medico m JOIN FETCH m.persona mper LEFT JOIN FETCH mper.paciente JOIN FETCH m.especialidad e " +
+           "JOIN FETCH c.consultorio con " +
+           "WHERE c.fechaHora >= :inicio AND c.fechaHora < :fin " +
+           "ORDER BY c.fechaHora")
+    List<Cita> findByRangoFechaHora(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    
     /**
      * Busca citas por fecha específica
      * @param fecha Fecha de las citas
      * @return Lista de citas en la fecha especificada
      */
-    @Query("SELECT c FROM Cita c JOIN FETCH c.paciente p JOIN FETCH p.persona per " +
-           "JOIN FETCH c.medico m JOIN FETCH m.persona mper JOIN FETCH m.especialidad e " +
-           "JOIN FETCH c.consultorio con " +
-           "WHERE CAST(c.fechaHora AS date) = :fecha " +
-           "ORDER BY c.fechaHora")
-    List<Cita> findByFecha(@Param("fecha") LocalDate fecha);
+    default List<Cita> findByFecha(LocalDate fecha) {
+        return findByRangoFechaHora(fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay());
+    }
+    
+    /**
+     * Busca citas de un médico en un rango de fecha y hora semiabierto [inicio, fin)
+     * Aprovecha el índice compuesto (medico_id, fecha_hora)
+     * @param medicoId ID del médico
+     * @param inicio Fecha y hora inicial (inclusive)
+     * @param fin Fecha y hora final (exclusive)
+     * @return Lista de citas del médico en el rango especificado
+     */
+    @Query("SELECT c FROM Cita c WHERE c.medico.id = :medicoId " +
+           "AND c.fechaHora >= :inicio AND c.fechaHora < :fin ORDER BY c.fechaHora")
+    List<Cita> findByMedicoIdAndRangoFechaHora(@Param("medicoId") Long medicoId,
+                                               @Param("inicio") LocalDateTime inicio,
+                                               @Param("fin") LocalDateTime fin);
+    
+    /**
+     * Busca las citas activas de varios médicos en un rango de fecha y hora semiabierto [inicio, fin)
+     * @param medicoIds IDs de los médicos
+     * @param inicio Fecha y hora inicial (inclusive)
+     * @param fin Fecha y hora final (exclusive)
+     * @return Lista de citas que ocupan el horario de los médicos, ordenadas por fecha y hora
+     */
+    @Query("SELECT c FROM Cita c WHERE c.medico.id IN :medicoIds " +
+           "AND c.estado IN ('PROGRAMADA', 'CONFIRMADA', 'EN_CURSO') " +
+           "AND c.fechaHora >= :inicio AND c.fechaHora < :fin ORDER BY c.fechaHora")
+    List<Cita> findActivasByMedicoIdInAndRangoFechaHora(@Param("medicoIds") Collection<Long> medicoIds,
+                                                        @Param("inicio") LocalDateTime inicio,
+                                                        @Param("fin") LocalDateTime fin);
     
     /**
      * Busca citas por médico en una fecha específica
@@ -35,8 +77,9 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * @param fecha Fecha de las citas
      * @return Lista de citas del médico en la fecha especificada
      */
-    @Query("SELECT c FROM Cita c WHERE c.medico.id = :medicoId AND CAST(c.fechaHora AS date) = :fecha ORDER BY c.fechaHora")
-    List<Cita> findByMedicoIdAndFecha(@Param("medicoId") Long medicoId, @Param("fecha") LocalDate fecha);
+    default List<Cita> findByMedicoIdAndFecha(Long medicoId, LocalDate fecha) {
+        return findByMedicoIdAndRangoFechaHora(medicoId, fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay());
+    }
     
     /**
      * Busca citas por paciente
@@ -64,12 +107,9 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * Busca citas del día actual
      * @return Lista de citas del día actual
      */
-    @Query("SELECT c FROM Cita c JOIN FETCH c.paciente p JOIN FETCH p.persona per " +
-           "JOIN FETCH c.medico m JOIN FETCH m.persona mper JOIN FETCH m.especialidad e " +
-           "JOIN FETCH c.consultorio con " +
-           "WHERE CAST(c.fechaHora AS date) = CURRENT_DATE " +
-           "ORDER BY c.fechaHora")
-    List<Cita> findCitasDelDia();
+    default List<Cita> findCitasDelDia() {
+        return findByFecha(LocalDate.now());
+    }
     
     /**
      * Busca citas próximas (siguientes 7 días)
@@ -83,18 +123,17 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
     List<Cita> findCitasProximas(@Param("fechaLimite") LocalDateTime fechaLimite);
     
     /**
-     * Verifica si existe conflicto de horario para un médico
-     * @param medicoId ID del médico
-     * @param fechaHora Fecha y hora de la cita
-     * @param duracionMinutos Duración estimada en minutos
-     * @return Lista de citas que podrían generar conflicto
+     * Cuenta citas por estado en un rango de fecha y hora semiabierto [inicio, fin)
+     * Aprovecha el índice compuesto (estado, fecha_hora)
+     * @param estado Estado de la cita
+     * @param inicio Fecha y hora inicial (inclusive)
+     * @param fin Fecha y hora final (exclusive)
+     * @return Número de citas con el estado en el rango especificado
      */
-    @Query("SELECT c FROM Cita c WHERE c.medico.id = :medicoId " +
-           "AND c.estado IN ('PROGRAMADA', 'CONFIRMADA', 'EN_CURSO') " +
-           "AND c.fechaHora BETWEEN :fechaInicio AND :fechaFin")
-    List<Cita> findConflictosHorario(@Param("medicoId") Long medicoId, 
-                                   @Param("fechaInicio") LocalDateTime fechaInicio, 
-                                   @Param("fechaFin") LocalDateTime fechaFin);
+    @Query("SELECT COUNT(c) FROM Cita c WHERE c.estado = :estado AND c.fechaHora >= :inicio AND c.fechaHora < :fin")
+    Long countByEstadoAndRangoFechaHora(@Param("estado") EstadoCita estado,
+                                        @Param("inicio") LocalDateTime inicio,
+                                        @Param("fin") LocalDateTime fin);
     
     /**
      * Cuenta citas por estado en una fecha específica
@@ -102,8 +141,96 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * @param fecha Fecha de las citas
      * @return Número de citas con el estado en la fecha especificada
      */
-    @Query("SELECT COUNT(c) FROM Cita c WHERE c.estado = :estado AND CAST(c.fechaHora AS date) = :fecha")
-    Long countByEstadoAndFecha(@Param("estado") EstadoCita estado, @Param("fecha") LocalDate fecha);
+    default Long countByEstadoAndFecha(EstadoCita estado, LocalDate fecha) {
+        return countByEstadoAndRangoFechaHora(estado, fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay());
+    }
+    
+    /**
+     * Cuenta citas agrupadas por estado en un rango de fecha y hora semiabierto [inicio, fin)
+     * Resuelve todas las estadísticas del dashboard en una sola consulta
+     * @param inicio Fecha y hora inicial (inclusive)
+     * @param fin Fecha y hora final (exclusive)
+     * @return Lista con el número de citas de cada estado presente en el rango
+     */
+    @Query("SELECT c.estado AS estado, COUNT(c) AS total FROM Cita c " +
+           "WHERE c.fechaHora >= :inicio AND c.fechaHora < :fin " +
+           "GROUP BY c.estado")
+    List<ConteoPorEstado> countAgrupadoPorEstado(@Param("inicio") LocalDateTime inicio,
+                                                 @Param("fin") LocalDateTime fin);
+    
+    /**
+     * Proyección con el número de citas de un estado
+     */
+    interface ConteoPorEstado {
+        EstadoCita getEstado();
+        Long getTotal();
+    }
+    
+    /**
+     * Obtiene el estado, médico y fecha de un conjunto de citas sin cargar las entidades
+     * @param ids IDs de las citas
+     * @return Estado actual de las citas existentes
+     */
+    @Query("SELECT c.idCita AS idCita, c.estado AS estado, c.medico.id AS medicoId, c.fechaHora AS fechaHora " +
+           "FROM Cita c WHERE c.idCita IN :ids")
+    List<EstadoActual> findEstadoActualByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Proyección con el estado actual de una cita
+     */
+    interface EstadoActual {
+        Long getIdCita();
+        EstadoCita getEstado();
+        Long getMedicoId();
+        LocalDateTime getFechaHora();
+    }
+    
+    /**
+     * Cambia en bloque el estado de las citas indicadas que sigan en uno de los estados de origen
+     * El nuevo estado debe seguir ocupando el horario del médico (se conserva slot_activo)
+     * @param ids IDs de las citas
+     * @param estadosOrigen Estados desde los que se permite la transición
+     * @param nuevoEstado Estado destino
+     * @return Número de citas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cita c SET c.estado = :nuevoEstado, c.version = c.version + 1 " +
+           "WHERE c.idCita IN :ids AND c.estado IN :estadosOrigen")
+    int actualizarEstadoActivo(@Param("ids") Collection<Long> ids,
+                               @Param("estadosOrigen") Collection<EstadoCita> estadosOrigen,
+                               @Param("nuevoEstado") EstadoCita nuevoEstado);
+    
+    /**
+     * Cierra en bloque las citas indicadas que sigan en uno de los estados de origen
+     * El nuevo estado libera el horario del médico (slot_activo pasa a NULL, ya que la
+     * actualización masiva no ejecuta los @PreUpdate de la entidad)
+     * @param ids IDs de las citas
+     * @param estadosOrigen Estados desde los que se permite la transición
+     * @param nuevoEstado Estado destino
+     * @param observaciones Observaciones a registrar, o null para conservar las existentes
+     * @return Número de citas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cita c SET c.estado = :nuevoEstado, c.slotActivo = NULL, c.version = c.version + 1, " +
+           "c.observaciones = COALESCE(:observaciones, c.observaciones) " +
+           "WHERE c.idCita IN :ids AND c.estado IN :estadosOrigen")
+    int cerrarCitas(@Param("ids") Collection<Long> ids,
+                    @Param("estadosOrigen") Collection<EstadoCita> estadosOrigen,
+                    @Param("nuevoEstado") EstadoCita nuevoEstado,
+                    @Param("observaciones") String observaciones);
+    
+    /**
+     * Busca IDs de citas en alguno de los estados indicados cuya fecha y hora sea anterior al límite
+     * Recorre el índice (estado, fecha_hora) por rango; pensado para procesar por lotes con Pageable
+     * @param estados Estados a buscar
+     * @param limite Fecha y hora límite (exclusive)
+     * @param pageable Tamaño del lote
+     * @return IDs de las citas encontradas
+     */
+    @Query("SELECT c.idCita FROM Cita c WHERE c.estado IN :estados AND c.fechaHora < :limite")
+    List<Long> findIdsByEstadoInAndFechaHoraAnterior(@Param("estados") Collection<EstadoCita> estados,
+                                                     @Param("limite") LocalDateTime limite,
+                                                     Pageable pageable);
     
     /**
      * Busca citas recientes (últimos 30 días) ordenadas por fecha
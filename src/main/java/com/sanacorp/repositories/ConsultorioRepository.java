@@ -1,5 +1,6 @@
 package com.sanacorp.repositories;
 
+import com.sanacorp.dto.ConsultorioResumen;
 import com.sanacorp.models.Consultorio;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -22,6 +23,14 @@ public interface ConsultorioRepository extends JpaRepository<Consultorio, Long>
     @Query("SELECT c FROM Consultorio c ORDER BY c.nombre")
     List<Consultorio> findAllActivos();
     
+    /**
+     * Obtiene los datos de todos los consultorios ordenados por nombre, sin cargar las entidades
+     * @return Lista de consultorios ordenados por nombre
+     */
+    @Query("SELECT new com.sanacorp.dto.ConsultorioResumen(c.id, c.nombre, c.ubicacion) " +
+           "FROM Consultorio c ORDER BY c.nombre")
+    List<ConsultorioResumen> findResumenes();
+    
     /**
      * Busca un consultorio por su nombre
      * @param nombre Nombre del consultorio
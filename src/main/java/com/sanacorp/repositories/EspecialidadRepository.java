@@ -1,5 +1,6 @@
 package com.sanacorp.repositories;
 
+import com.sanacorp.dto.EspecialidadResumen;
 import com.sanacorp.models.Especialidad;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -22,6 +23,14 @@ public interface EspecialidadRepository extends JpaRepository<Especialidad, Long
     @Query("SELECT e FROM Especialidad e ORDER BY e.nombre")
     List<Especialidad> findAllActivas();
     
+    /**
+     * Obtiene los datos de todas las especialidades ordenadas por nombre, sin cargar las entidades
+     * @return Lista de especialidades ordenadas por nombre
+     */
+    @Query("SELECT new com.sanacorp.dto.EspecialidadResumen(e.id, e.nombre, e.descripcion) " +
+           "FROM Especialidad e ORDER BY e.nombre")
+    List<EspecialidadResumen> findResumenes();
+    
     /**
      * Busca una especialidad por su nombre
      * @param nombre Nombre de la especialidad
@@ -1,11 +1,15 @@
 package com.sanacorp.repositories;
 
 import com.sanacorp.models.Horario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +27,14 @@ public interface HorarioRepository extends JpaRepository<Horario, Long> {
     @Query("SELECT h FROM Horario h WHERE h.medico.id = :medicoId ORDER BY h.diaSemana, h.horaInicio")
     List<Horario> findByMedicoId(@Param("medicoId") Long medicoId);
     
+    /**
+     * Busca los horarios de varios médicos en una sola consulta
+     * @param medicoIds IDs de los médicos
+     * @return Lista de horarios ordenados por médico, día y hora de inicio
+     */
+    @Query("SELECT h FROM Horario h WHERE h.medico.id IN :medicoIds ORDER BY h.medico.id, h.diaSemana, h.horaInicio")
+    List<Horario> findByMedicoIdIn(@Param("medicoIds") Collection<Long> medicoIds);
+    
     /**
      * Busca horarios por día de la semana
      * @param diaSemana Día de la semana (1=Lunes, 7=Domingo)
@@ -48,6 +60,7 @@ public interface HorarioRepository extends JpaRepository<Horario, Long> {
      * @return Lista de horarios del médico en el día especificado
      */
     @Query("SELECT h FROM Horario h WHERE h.medico.id = :medicoId AND h.diaSemana = :diaSemana ORDER BY h.horaInicio")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Horario> findByMedicoIdAndDiaSemana(@Param("medicoId") Long medicoId, @Param("diaSemana") Integer diaSemana);
     
     /**
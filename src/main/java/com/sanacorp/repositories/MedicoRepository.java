@@ -1,11 +1,13 @@
 package com.sanacorp.repositories;
 
+import com.sanacorp.dto.MedicoResumen;
 import com.sanacorp.models.Medico;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +25,16 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
     @Query("SELECT m FROM Medico m JOIN m.especialidad e WHERE e.id = :especialidadId")
     List<Medico> findByEspecialidadId(@Param("especialidadId") Long especialidadId);
     
+    /**
+     * Obtiene los datos resumidos de los médicos de una especialidad en una sola consulta
+     * @param especialidadId ID de la especialidad
+     * @return Lista de resúmenes ordenados por apellido y nombre
+     */
+    @Query("SELECT new com.sanacorp.dto.MedicoResumen(m.id, p.dni, CONCAT(p.nombre, ' ', p.apellido), e.nombre) " +
+           "FROM Medico m JOIN m.persona p JOIN m.especialidad e WHERE e.id = :especialidadId " +
+           "ORDER BY p.apellido, p.nombre")
+    List<MedicoResumen> findResumenByEspecialidadId(@Param("especialidadId") Long especialidadId);
+    
     /**
      * Busca médicos activos con sus especialidades
      * @return Lista de médicos activos con especialidades cargadas
@@ -41,6 +53,15 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
            "ORDER BY p.apellido, p.nombre")
     List<Medico> findByNombreContaining(@Param("texto") String texto);
     
+    /**
+     * Obtiene los datos resumidos de un conjunto de médicos en una sola consulta
+     * @param ids IDs de los médicos
+     * @return Lista de resúmenes con DNI, nombre completo y especialidad
+     */
+    @Query("SELECT new com.sanacorp.dto.MedicoResumen(m.id, p.dni, CONCAT(p.nombre, ' ', p.apellido), e.nombre) " +
+           "FROM Medico m JOIN m.persona p JOIN m.especialidad e WHERE m.id IN :ids")
+    List<MedicoResumen> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Busca médicos disponibles para programar citas
      * @return Lista de médicos disponibles
@@ -1,10 +1,13 @@
 package com.sanacorp.repositories;
 
+import com.sanacorp.dto.PacienteResumen;
 import com.sanacorp.models.Paciente;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -23,6 +26,16 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
     @Query("SELECT p FROM Paciente p JOIN p.persona per WHERE per.dni = :dni")
     Optional<Paciente> findByPersonaDni(@Param("dni") String dni);
     
+    /**
+     * Obtiene los datos resumidos de un paciente por DNI en una sola consulta
+     * @param dni DNI del paciente
+     * @return Optional con el resumen del paciente encontrado
+     */
+    @Query("SELECT new com.sanacorp.dto.PacienteResumen(p.id, per.dni, CONCAT(per.nombre, ' ', per.apellido), " +
+           "per.telefono, per.fechaNacimiento) " +
+           "FROM Paciente p JOIN p.persona per WHERE per.dni = :dni")
+    Optional<PacienteResumen> findResumenByDni(@Param("dni") String dni);
+    
     /**
      * Busca pacientes por nombre o apellidos
      * @param texto Texto a buscar en nombre o apellidos
@@ -45,6 +58,42 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
            "LOWER(per.apellido) LIKE LOWER(CONCAT('%', :nombre, '%')))")
     List<Paciente> findByDniOrNombre(@Param("dni") String dni, @Param("nombre") String nombre);
     
+    /**
+     * Busca pacientes por sus IDs con la persona cargada
+     * @param ids IDs de los pacientes
+     * @return Lista de pacientes encontrados
+     */
+    @Query("SELECT p FROM Paciente p JOIN FETCH p.persona per WHERE p.id IN :ids")
+    List<Paciente> findAllConPersonaByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Obtiene la primera página de pacientes ordenados por apellido, nombre e ID de persona
+     * El orden coincide con el índice idx_persona_apellido_nombre, que incluye la clave primaria de personas
+     * @param pageable Tamaño de la página
+     * @return Lista de pacientes con su persona cargada
+     */
+    @Query("SELECT p FROM Paciente p JOIN FETCH p.persona per " +
+           "ORDER BY per.apellido, per.nombre, per.idPersona")
+    List<Paciente> findPrimeraPagina(Pageable pageable);
+    
+    /**
+     * Obtiene la página de pacientes siguiente a la posición indicada (paginación por clave)
+     * @param apellido Apellido del último paciente de la página anterior
+     * @param nombre Nombre del último paciente de la página anterior
+     * @param idPersona ID de persona del último paciente de la página anterior
+     * @param pageable Tamaño de la página
+     * @return Lista de pacientes con su persona cargada
+     */
+    @Query("SELECT p FROM Paciente p JOIN FETCH p.persona per WHERE " +
+           "per.apellido > :apellido OR " +
+           "(per.apellido = :apellido AND per.nombre > :nombre) OR " +
+           "(per.apellido = :apellido AND per.nombre = :nombre AND per.idPersona > :idPersona) " +
+           "ORDER BY per.apellido, per.nombre, per.idPersona")
+    List<Paciente> findPaginaSiguiente(@Param("apellido") String apellido,
+                                       @Param("nombre") String nombre,
+                                       @Param("idPersona") Long idPersona,
+                                       Pageable pageable);
+    
     /**
      * Cuenta el número total de pacientes
      * @return Número de pacientes
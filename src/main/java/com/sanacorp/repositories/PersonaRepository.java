@@ -1,12 +1,15 @@
 package com.sanacorp.repositories;
 
 import com.sanacorp.models.Persona;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Repositorio para la entidad Persona
@@ -31,6 +34,43 @@ public interface PersonaRepository extends JpaRepository<Persona, Long> {
     @Query("SELECT p FROM Persona p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :texto, '%')) OR LOWER(p.apellido) LIKE LOWER(CONCAT('%', :texto, '%'))")
     List<Persona> findByNombreOrApellidos(@Param("texto") String texto);
     
+    /**
+     * Obtiene los datos de búsqueda de las personas a partir de un ID, en orden de ID
+     * Se usa para construir por lotes el índice de búsqueda en memoria
+     * @param ultimoId ID de la última persona leída en el lote anterior
+     * @param pageable Tamaño del lote
+     * @return Lista de proyecciones con DNI, nombre, apellido y vínculos con paciente y médico
+     */
+    @Query("SELECT per.idPersona AS idPersona, per.dni AS dni, per.nombre AS nombre, per.apellido AS apellido, " +
+           "pac.id AS pacienteId, med.id AS medicoId " +
+           "FROM Persona per LEFT JOIN per.paciente pac LEFT JOIN per.medico med " +
+           "WHERE per.idPersona > :ultimoId ORDER BY per.idPersona")
+    List<PersonaIndexable> findParaIndice(@Param("ultimoId") Long ultimoId, Pageable pageable);
+    
+    /**
+     * Obtiene los datos de búsqueda de las personas con los DNI indicados
+     * Se usa para indexar las personas insertadas por la importación masiva
+     * @param dnis DNI de las personas
+     * @return Lista de proyecciones con DNI, nombre, apellido y vínculos con paciente y médico
+     */
+    @Query("SELECT per.idPersona AS idPersona, per.dni AS dni, per.nombre AS nombre, per.apellido AS apellido, " +
+           "pac.id AS pacienteId, med.id AS medicoId " +
+           "FROM Persona per LEFT JOIN per.paciente pac LEFT JOIN per.medico med " +
+           "WHERE per.dni IN :dnis")
+    List<PersonaIndexable> findParaIndiceByDniIn(@Param("dnis") Collection<String> dnis);
+    
+    /**
+     * Proyección con los datos indexados para la búsqueda de personas
+     */
+    interface PersonaIndexable {
+        Long getIdPersona();
+        String getDni();
+        String getNombre();
+        String getApellido();
+        Long getPacienteId();
+        Long getMedicoId();
+    }
+    
     /**
      * Busca personas por género
      * @param genero Género de la persona (M/F)
@@ -45,4 +85,12 @@ public interface PersonaRepository extends JpaRepository<Persona, Long> {
      * @return true si existe, false en caso contrario
      */
     boolean existsByDni(String dni);
+    
+    /**
+     * Obtiene cuáles de los DNI dados ya están registrados, con una sola consulta
+     * @param dnis DNI a verificar
+     * @return DNI que ya existen
+     */
+    @Query("SELECT p.dni FROM Persona p WHERE p.dni IN :dnis")
+    Set<String> findDnisExistentes(@Param("dnis") Collection<String> dnis);
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.sanacorp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Calibración del factor de trabajo de bcrypt para el hardware actual
+ * Mide el tiempo de verificación para cada fuerza y elige la mayor cuyo percentil 99
+ * no supere el objetivo. Las verificaciones se miden con tantos hilos simultáneos como
+ * el grupo de hash de EncoderContrasenasAcotado, que es la concurrencia que tendrán en producción
+ */
+public final class CalibracionBcrypt {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibracionBcrypt.class);
+
+    // Fuerza mínima aceptada, aunque no cumpla el objetivo
+    public static final int FUERZA_MINIMA = 10;
+
+    // Fuerza máxima evaluada
+    public static final int FUERZA_MAXIMA = 16;
+
+    private static final String CONTRASENA_PRUEBA = "calibracion-Sana-Corp-2024";
+
+    private CalibracionBcrypt() {
+    }
+
+    /**
+     * Elige la fuerza de bcrypt que cumple el objetivo de latencia
+     * @param objetivoP99Ms Percentil 99 máximo de una verificación, en milisegundos
+     * @param muestras Número de verificaciones medidas por hilo y fuerza
+     * @param hilos Número de hilos que verifican a la vez
+     * @return Fuerza elegida, nunca inferior a FUERZA_MINIMA
+     */
+    public static int calibrar(long objetivoP99Ms, int muestras, int hilos) {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            int elegida = FUERZA_MINIMA;
+            for (int fuerza = FUERZA_MINIMA; fuerza <= FUERZA_MAXIMA; fuerza++) {
+                long p99Ms = medirP99Ms(ejecutor, fuerza, muestras, hilos);
+                logger.info("Calibración bcrypt: fuerza {} -> p99 {} ms con {} hilos", fuerza, p99Ms, hilos);
+                if (p99Ms > objetivoP99Ms) {
+                    break;
+                }
+                elegida = fuerza;
+            }
+            logger.info("Calibración bcrypt: fuerza elegida {} para un p99 objetivo de {} ms", elegida, objetivoP99Ms);
+            return elegida;
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private static long medirP99Ms(ExecutorService ejecutor, int fuerza, int muestras, int hilos) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(fuerza);
+        String hash = encoder.encode(CONTRASENA_PRUEBA);
+
+        // Todos los hilos empiezan a medir a la vez, tras una verificación de calentamiento cada uno
+        CountDownLatch listos = new CountDownLatch(hilos);
+        List<Future<long[]>> resultados = new ArrayList<>(hilos);
+        for (int h = 0; h < hilos; h++) {
+            resultados.add(ejecutor.submit(() -> {
+                encoder.matches(CONTRASENA_PRUEBA, hash);
+                listos.countDown();
+                listos.await();
+
+                long[] tiempos = new long[muestras];
+                for (int i = 0; i < muestras; i++) {
+                    long inicio = System.nanoTime();
+                    encoder.matches(CONTRASENA_PRUEBA, hash);
+                    tiempos[i] = System.nanoTime() - inicio;
+                }
+                return tiempos;
+            }));
+        }
+
+        long[] tiempos = new long[muestras * hilos];
+        try {
+            for (int h = 0; h < hilos; h++) {
+                System.arraycopy(resultados.get(h).get(), 0, tiempos, h * muestras, muestras);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Se interrumpió la calibración de bcrypt");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error en la calibración de bcrypt: " + e.getCause().getMessage(), e.getCause());
+        }
+        Arrays.sort(tiempos);
+        int indice = Math.min(tiempos.length - 1, (int) Math.ceil(tiempos.length * 0.99) - 1);
+        return tiempos[indice] / 1_000_000;
+    }
+
+    /**
+     * Ejecuta la calibración desde la línea de comandos
+     * Argumentos opcionales: objetivo p99 en milisegundos (250), muestras por hilo y fuerza (20)
+     * e hilos simultáneos (la mitad de los procesadores, como sanacorp.seguridad.hash.hilos=0)
+     */
+    public static void main(String[] args) {
+        long objetivo = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int muestras = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2])
+                                    : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        System.out.println("Fuerza recomendada: " + calibrar(objetivo, muestras, hilos));
+    }
+}
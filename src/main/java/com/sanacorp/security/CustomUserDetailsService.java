@@ -1,19 +1,27 @@
 package com.sanacorp.security;
 
+import com.sanacorp.models.Rol;
 import com.sanacorp.models.Usuario;
+import com.sanacorp.repositories.RolRepository;
 import com.sanacorp.repositories.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Servicio personalizado para cargar detalles del usuario
@@ -24,11 +32,28 @@ import java.util.stream.Collectors;
  */
 @Service
 @Transactional
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private RolRepository rolRepository;
+
+    // Autoridad única por nombre de rol, compartida por todos los usuarios autenticados
+    private final Map<String, GrantedAuthority> autoridadesPorRol = new ConcurrentHashMap<>();
+
+    /**
+     * Precalcula las autoridades de todos los roles al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void precargarAutoridades() {
+        for (Rol rol : rolRepository.findAll()) {
+            autoridadDeRol(rol.getNombre());
+        }
+    }
+
     /**
      * Carga un usuario por su nombre de usuario
      * 
@@ -54,16 +79,47 @@ public class CustomUserDetailsService implements UserDetailsService {
             .build();
     }
 
+    /**
+     * Guarda el hash actualizado de la contraseña de un usuario
+     * Spring Security lo invoca tras un inicio de sesión correcto cuando el hash guardado
+     * usa un formato o una fuerza distintos de los configurados
+     * 
+     * @param user Usuario autenticado
+     * @param newPassword Nuevo hash de la contraseña
+     * @return Usuario con el nuevo hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usuarioRepository.findByUsername(user.getUsername()).ifPresent(usuario -> {
+            usuario.setPassword(newPassword);
+            usuarioRepository.save(usuario);
+        });
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
     /**
      * Convierte los roles del usuario en autoridades de Spring Security
      * 
      * @param usuario Usuario con roles
-     * @return Colección de autoridades
+     * @return Lista de autoridades
+     */
+    List<GrantedAuthority> mapRolesToAuthorities(Usuario usuario) {
+        List<GrantedAuthority> autoridades = new ArrayList<>(usuario.getRoles().size());
+        for (Rol rol : usuario.getRoles()) {
+            autoridades.add(autoridadDeRol(rol.getNombre()));
+        }
+        return autoridades;
+    }
+
+    /**
+     * Obtiene la autoridad compartida de un rol, creándola la primera vez
+     * 
+     * @param nombreRol Nombre del rol
+     * @return Autoridad ROLE_NOMBRE
      */
-    private Collection<? extends GrantedAuthority> mapRolesToAuthorities(Usuario usuario) {
-        return usuario.getRoles().stream()
-            .map(rol -> new SimpleGrantedAuthority("ROLE_" + rol.getNombre().toUpperCase()))
-            .collect(Collectors.toList());
+    private GrantedAuthority autoridadDeRol(String nombreRol) {
+        return autoridadesPorRol.computeIfAbsent(nombreRol,
+            nombre -> new SimpleGrantedAuthority("ROLE_" + nombre.toUpperCase(Locale.ROOT)));
     }
 
     /**
@@ -0,0 +1,122 @@
+package com.sanacorp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Codificador de contraseñas que ejecuta el hash en un grupo de hilos dedicado y acotado
+ * El cálculo de bcrypt consume CPU; limitar los hilos que lo ejecutan evita que una ráfaga de
+ * inicios de sesión deje sin CPU al resto de peticiones. Cuando la cola de espera está llena
+ * la petición se rechaza de inmediato en lugar de acumular latencia
+ */
+public class EncoderContrasenasAcotado implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegado;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long esperaMs;
+
+    private final Counter rechazos;
+
+    private final Timer duracion;
+
+    /**
+     * @param delegado Codificador que realiza el cálculo
+     * @param hilos Número de hilos dedicados al hash
+     * @param tamanoCola Número máximo de operaciones en espera
+     * @param esperaMs Tiempo máximo de espera del resultado
+     * @param meterRegistry Registro de métricas
+     */
+    public EncoderContrasenasAcotado(PasswordEncoder delegado, int hilos, int tamanoCola, long esperaMs,
+                                     MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.esperaMs = esperaMs;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(tamanoCola),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "hash-contrasenas-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.rechazos = Counter.builder("sanacorp.seguridad.hash.rechazos")
+            .description("Operaciones de hash rechazadas por cola llena o tiempo de espera agotado")
+            .register(meterRegistry);
+        this.duracion = Timer.builder("sanacorp.seguridad.hash.duracion")
+            .description("Tiempo total de las operaciones de hash, incluida la espera en cola")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("sanacorp.seguridad.hash.cola", executor, e -> e.getQueue().size())
+            .description("Operaciones de hash en espera")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T ejecutar(Callable<T> operacion) {
+        long inicio = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(operacion);
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new AuthenticationServiceException("El servicio de autenticación está saturado, intente nuevamente");
+        }
+
+        try {
+            return futuro.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rechazos.increment();
+            throw new AuthenticationServiceException("La verificación de la contraseña superó el tiempo de espera");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Se interrumpió la verificación de la contraseña");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new AuthenticationServiceException("Error al procesar la contraseña", causa);
+        } finally {
+            duracion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -1,19 +1,28 @@
 package com.sanacorp.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
+import java.util.Map;
+
 /**
  * Configuración de seguridad para el sistema Sana Corp
  * Maneja la autenticación y autorización de usuarios
@@ -29,10 +38,34 @@ public class SecurityConfig {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    /**
+     * Configuración del filtro de seguridad de actuator
+     * Estado e información quedan abiertos para el HEALTHCHECK de Docker; Prometheus se autentica con
+     * HTTP Basic (basic_auth en el scrape) con un usuario de rol Monitoreo o Administrador, y el resto
+     * de actuator es solo para administradores. Sin sesión: cada scrape envía sus credenciales
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/prometheus").hasAnyRole("MONITOREO", "ADMINISTRADOR")
+                .anyRequest().hasRole("ADMINISTRADOR")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
     /**
      * Configuración del filtro de seguridad
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(authz -> authz
@@ -93,10 +126,40 @@ public class SecurityConfig {
 
     /**
      * Codificador de contraseñas BCrypt
+     * Los nuevos hashes llevan el prefijo {bcrypt} con la fuerza configurada (o calibrada al iniciar);
+     * los hashes existentes sin prefijo se verifican como bcrypt y se actualizan al iniciar sesión.
+     * El cálculo se ejecuta en un grupo de hilos dedicado y acotado
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${sanacorp.seguridad.bcrypt.fuerza:10}") int fuerza,
+                                           @Value("${sanacorp.seguridad.bcrypt.calibrar:false}") boolean calibrar,
+                                           @Value("${sanacorp.seguridad.bcrypt.p99-objetivo-ms:250}") long objetivoP99Ms,
+                                           @Value("${sanacorp.seguridad.hash.hilos:0}") int hilos,
+                                           @Value("${sanacorp.seguridad.hash.cola:64}") int tamanoCola,
+                                           @Value("${sanacorp.seguridad.hash.espera-ms:5000}") long esperaMs) {
+        int hilosEfectivos = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // Calibrar con la misma concurrencia del grupo de hash: los hilos compiten por los núcleos
+        int fuerzaEfectiva = calibrar ? CalibracionBcrypt.calibrar(objetivoP99Ms, 20, hilosEfectivos) : fuerza;
+        
+        DelegatingPasswordEncoder delegado = new DelegatingPasswordEncoder(
+            "bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(fuerzaEfectiva)));
+        delegado.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        
+        return new EncoderContrasenasAcotado(delegado, hilosEfectivos, tamanoCola, esperaMs, meterRegistry);
+    }
+
+    /**
+     * Proveedor de autenticación con caché de usuarios
+     * Evita consultar usuarios y roles en cada inicio de sesión mientras la entrada no expire
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder, UsuarioCache usuarioCache) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserCache(usuarioCache);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return provider;
     }
 
     /**
@@ -0,0 +1,40 @@
+package com.sanacorp.security;
+
+import com.sanacorp.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caché de usuarios para la autenticación, acotada en tamaño y con tiempo de vida
+ * Guarda y devuelve copias: el administrador de autenticación borra la contraseña del
+ * usuario autenticado, y sin copia se borraría también la del usuario en caché
+ */
+@Component
+public class UsuarioCache implements UserCache {
+
+    private final Cache cache;
+
+    public UsuarioCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheConfig.USUARIOS);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails usuario = cache.get(username, UserDetails.class);
+        return usuario != null ? User.withUserDetails(usuario).build() : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), User.withUserDetails(user).build());
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.evict(username);
+    }
+}
@@ -0,0 +1,27 @@
+package com.sanacorp.security;
+
+import com.sanacorp.models.Usuario;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalida la caché de autenticación cuando cambia un usuario (estado, contraseña o roles)
+ * Los cambios solo en los roles también llegan aquí porque Usuario está versionado
+ * La caché es transaccional, por lo que la entrada se descarta al confirmar la transacción
+ */
+@Component
+public class UsuarioCacheListener {
+
+    @Autowired
+    @Lazy
+    private UsuarioCache usuarioCache;
+
+    @PostUpdate
+    @PostRemove
+    public void invalidar(Usuario usuario) {
+        usuarioCache.removeUserFromCache(usuario.getUsername());
+    }
+}
@@ -0,0 +1,119 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Cita.EstadoCita;
+import com.sanacorp.repositories.CitaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tarea programada que marca como "No Asistió" las citas activas cuyo horario ya pasó
+ * Recorre las citas vencidas por rango de fecha y las actualiza por lotes, cada lote en su propia transacción
+ */
+@Service
+@ConditionalOnProperty(name = "sanacorp.citas.inasistencias.habilitado", havingValue = "true", matchIfMissing = true)
+public class BarridoInasistenciasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarridoInasistenciasService.class);
+
+    // Estados que se consideran inasistencia cuando el horario ya pasó (EN_CURSO se deja al médico)
+    private static final Set<EstadoCita> ESTADOS_VENCIBLES = EnumSet.of(EstadoCita.PROGRAMADA, EstadoCita.CONFIRMADA);
+
+    private final CitaRepository citaRepository;
+
+    private final TransactionTemplate transaccion;
+
+    private final int tamanoLote;
+
+    private final long margenMinutos;
+
+    private final Counter citasMarcadas;
+
+    private final Timer duracionBarrido;
+
+    public BarridoInasistenciasService(CitaRepository citaRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${sanacorp.citas.inasistencias.tamano-lote:1000}") int tamanoLote,
+                                       @Value("${sanacorp.citas.inasistencias.margen-minutos:60}") long margenMinutos) {
+        this.citaRepository = citaRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+        this.margenMinutos = margenMinutos;
+        this.citasMarcadas = Counter.builder("sanacorp.citas.inasistencias.marcadas")
+            .description("Citas marcadas automáticamente como No Asistió")
+            .register(meterRegistry);
+        this.duracionBarrido = Timer.builder("sanacorp.citas.inasistencias.barrido")
+            .description("Duración de cada barrido de inasistencias")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta el barrido periódicamente; el intervalo se cuenta desde el fin de la ejecución anterior
+     */
+    @Scheduled(fixedDelayString = "${sanacorp.citas.inasistencias.intervalo-ms:900000}",
+               initialDelayString = "${sanacorp.citas.inasistencias.retraso-inicial-ms:60000}")
+    public void ejecutarBarrido() {
+        Timer.Sample muestra = Timer.start();
+        try {
+            marcarCitasVencidas();
+        } finally {
+            muestra.stop(duracionBarrido);
+        }
+    }
+
+    /**
+     * Marca como "No Asistió" las citas programadas o confirmadas cuyo horario terminó hace más del margen configurado
+     * @return Número de citas marcadas
+     */
+    public long marcarCitasVencidas() {
+        long inicio = System.currentTimeMillis();
+        LocalDateTime limite = LocalDateTime.now()
+            .minusMinutes(CitaService.DURACION_CITA_MINUTOS + margenMinutos);
+
+        long total = 0;
+        int lotes = 0;
+        Lote lote;
+        do {
+            lote = transaccion.execute(status -> {
+                List<Long> ids = citaRepository.findIdsByEstadoInAndFechaHoraAnterior(
+                    ESTADOS_VENCIBLES, limite, PageRequest.of(0, tamanoLote));
+                if (ids.isEmpty()) {
+                    return new Lote(0, 0);
+                }
+                // La condición de estado del UPDATE descarta las citas modificadas por otra transacción
+                return new Lote(ids.size(), citaRepository.cerrarCitas(ids, ESTADOS_VENCIBLES, EstadoCita.NO_ASISTIO, null));
+            });
+            if (lote.leidas() > 0) {
+                total += lote.marcadas();
+                citasMarcadas.increment(lote.marcadas());
+                lotes++;
+            }
+        } while (lote.leidas() == tamanoLote);
+
+        if (total > 0) {
+            logger.info("Barrido de inasistencias: {} citas marcadas en {} lotes ({} ms)",
+                        total, lotes, System.currentTimeMillis() - inicio);
+        }
+        return total;
+    }
+
+    /**
+     * Resultado de un lote: citas leídas y citas efectivamente marcadas
+     */
+    private record Lote(int leidas, int marcadas) {
+    }
+}
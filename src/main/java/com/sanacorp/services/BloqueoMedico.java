@@ -0,0 +1,21 @@
+package com.sanacorp.services;
+
+/**
+ * Bloqueo por médico para serializar las reservas concurrentes de un mismo médico
+ * Las reservas de médicos distintos no se bloquean entre sí
+ */
+public interface BloqueoMedico {
+
+    /**
+     * Adquiere el bloqueo del médico y lo mantiene hasta que finalice la transacción actual
+     * @param medicoId ID del médico
+     * @throws RuntimeException si no hay una transacción activa o no se obtiene el bloqueo a tiempo
+     */
+    void bloquearHastaFinTransaccion(Long medicoId);
+
+    /**
+     * Indica si el bloqueo es compartido entre varias instancias de la aplicación
+     * @return true si el bloqueo se resuelve en la base de datos
+     */
+    boolean esDistribuido();
+}
@@ -0,0 +1,84 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Medico;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PessimisticLockException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+/**
+ * Bloqueo por médico en la base de datos mediante SELECT ... FOR UPDATE sobre la fila del médico
+ * El bloqueo se libera automáticamente al confirmar o revertir la transacción, por lo que
+ * sirve cuando la aplicación se ejecuta en varias instancias
+ * La espera máxima es sanacorp.citas.bloqueo.espera-ms: se pasa como jakarta.persistence.lock.timeout, que
+ * respetan las bases que admiten FOR UPDATE WAIT; MySQL lo ignora, por lo que allí se aplica con
+ * innodb_lock_wait_timeout (en segundos, redondeado hacia arriba) solo durante la sentencia de bloqueo.
+ * H2 (perfil dev) mantiene su propio LOCK_TIMEOUT
+ */
+@Service
+@ConditionalOnProperty(name = "sanacorp.citas.bloqueo.tipo", havingValue = "bd")
+public class BloqueoMedicoBaseDatos implements BloqueoMedico {
+
+    private static final String CONSULTA_BLOQUEO = "SELECT m FROM Medico m WHERE m.id = :id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int esperaMs;
+
+    public BloqueoMedicoBaseDatos(@Value("${sanacorp.citas.bloqueo.espera-ms:5000}") int esperaMs) {
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bloquearHastaFinTransaccion(Long medicoId) {
+        boolean mysql = dialecto() instanceof MySQLDialect;
+        try {
+            if (mysql) {
+                entityManager.createNativeQuery("SET SESSION innodb_lock_wait_timeout = " + esperaSegundos())
+                    .executeUpdate();
+            }
+            List<Medico> medico = entityManager.createQuery(CONSULTA_BLOQUEO, Medico.class)
+                .setParameter("id", medicoId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, esperaMs)
+                .getResultList();
+            if (medico.isEmpty()) {
+                throw new RuntimeException("El médico seleccionado no existe");
+            }
+        } catch (PessimisticLockException | LockTimeoutException e) {
+            throw new RuntimeException("El horario del médico está siendo reservado por otro usuario, intente nuevamente");
+        } finally {
+            if (mysql) {
+                // La conexión vuelve al pool: restaurar la espera global para las demás transacciones
+                entityManager.createNativeQuery("SET SESSION innodb_lock_wait_timeout = DEFAULT").executeUpdate();
+            }
+        }
+    }
+
+    @Override
+    public boolean esDistribuido() {
+        return true;
+    }
+
+    private int esperaSegundos() {
+        return Math.max(1, (esperaMs + 999) / 1000);
+    }
+
+    private Dialect dialecto() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect();
+    }
+}
@@ -0,0 +1,68 @@
+package com.sanacorp.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueo por médico dentro de la JVM mediante un arreglo fijo de cerrojos (franjas)
+ * Cada médico se asigna a una franja según su ID; válido cuando se ejecuta una sola instancia
+ */
+@Service
+@ConditionalOnProperty(name = "sanacorp.citas.bloqueo.tipo", havingValue = "local", matchIfMissing = true)
+public class BloqueoMedicoLocal implements BloqueoMedico {
+
+    private final ReentrantLock[] franjas;
+
+    private final long esperaMs;
+
+    public BloqueoMedicoLocal(@Value("${sanacorp.citas.bloqueo.franjas:64}") int numeroFranjas,
+                              @Value("${sanacorp.citas.bloqueo.espera-ms:5000}") long esperaMs) {
+        // Redondear a potencia de dos para calcular la franja con una máscara
+        int tamano = Integer.highestOneBit(Math.max(1, numeroFranjas - 1)) << 1;
+        this.franjas = new ReentrantLock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    public void bloquearHastaFinTransaccion(Long medicoId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new RuntimeException("El bloqueo del médico requiere una transacción activa");
+        }
+
+        ReentrantLock cerrojo = franja(medicoId);
+        try {
+            if (!cerrojo.tryLock(esperaMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("El horario del médico está siendo reservado por otro usuario, intente nuevamente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Se interrumpió la espera del bloqueo del médico");
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cerrojo.unlock();
+            }
+        });
+    }
+
+    @Override
+    public boolean esDistribuido() {
+        return false;
+    }
+
+    private ReentrantLock franja(Long medicoId) {
+        int hash = Long.hashCode(medicoId);
+        hash ^= (hash >>> 16);
+        return franjas[hash & (franjas.length - 1)];
+    }
+}
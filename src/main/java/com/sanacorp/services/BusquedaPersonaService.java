@@ -0,0 +1,410 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Persona;
+import com.sanacorp.repositories.PersonaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Índice de búsqueda en memoria sobre las personas del sistema
+ * Indexa trigramas de nombres y apellidos normalizados (minúsculas y sin tildes) y el DNI por prefijo,
+ * de modo que las búsquedas de recepción no recorren la tabla de personas con LIKE '%texto%'
+ */
+@Service
+public class BusquedaPersonaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaPersonaService.class);
+
+    // Número de personas leídas por consulta al construir el índice
+    private static final int TAMANO_LOTE_CARGA = 10_000;
+
+    @Autowired
+    private PersonaRepository personaRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Entradas indexadas; la posición en la lista es el identificador interno
+    private final List<Entrada> entradas = new ArrayList<>();
+
+    // Identificador interno de cada persona; al reindexarla se reutiliza su posición
+    private final Map<Long, Integer> entradaPorPersona = new HashMap<>();
+
+    // Listas de entradas por trigrama
+    private final Map<String, ListaEnteros> trigramas = new HashMap<>();
+
+    // DNI ordenados para búsqueda por prefijo
+    private final NavigableMap<String, Integer> porDni = new TreeMap<>();
+
+    /**
+     * Construye el índice al iniciar la aplicación leyendo las personas por lotes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndice() {
+        long inicio = System.currentTimeMillis();
+        long ultimoId = 0L;
+        int total = 0;
+
+        List<PersonaRepository.PersonaIndexable> lote;
+        do {
+            lote = personaRepository.findParaIndice(ultimoId, PageRequest.of(0, TAMANO_LOTE_CARGA));
+            lock.writeLock().lock();
+            try {
+                for (PersonaRepository.PersonaIndexable persona : lote) {
+                    indexarSinBloqueo(persona.getIdPersona(), persona.getDni(), persona.getNombre(),
+                                      persona.getApellido(), persona.getPacienteId(), persona.getMedicoId());
+                    ultimoId = persona.getIdPersona();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            total += lote.size();
+        } while (lote.size() == TAMANO_LOTE_CARGA);
+
+        logger.info("Índice de búsqueda de personas construido: {} personas en {} ms",
+                    total, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Indexa o reindexa una persona una vez confirmada la transacción actual
+     * @param persona Persona guardada
+     * @param pacienteId ID del paciente asociado, o null
+     * @param medicoId ID del médico asociado, o null
+     */
+    public void indexarAlConfirmar(Persona persona, Long pacienteId, Long medicoId) {
+        Long idPersona = persona.getIdPersona();
+        String dni = persona.getDni();
+        String nombre = persona.getNombre();
+        String apellido = persona.getApellido();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexar(idPersona, dni, nombre, apellido, pacienteId, medicoId);
+                }
+            });
+        } else {
+            indexar(idPersona, dni, nombre, apellido, pacienteId, medicoId);
+        }
+    }
+
+    /**
+     * Indexa o reindexa una persona
+     */
+    public void indexar(Long idPersona, String dni, String nombre, String apellido, Long pacienteId, Long medicoId) {
+        lock.writeLock().lock();
+        try {
+            indexarSinBloqueo(idPersona, dni, nombre, apellido, pacienteId, medicoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa o reindexa un conjunto de personas tomando el bloqueo una sola vez
+     * @param personas Datos de búsqueda de las personas
+     */
+    public void indexarTodas(List<PersonaRepository.PersonaIndexable> personas) {
+        lock.writeLock().lock();
+        try {
+            for (PersonaRepository.PersonaIndexable persona : personas) {
+                indexarSinBloqueo(persona.getIdPersona(), persona.getDni(), persona.getNombre(),
+                                  persona.getApellido(), persona.getPacienteId(), persona.getMedicoId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca pacientes por DNI (prefijo) o por nombre y apellidos
+     * @param texto Texto de búsqueda
+     * @param limite Número máximo de resultados
+     * @return Resultados ordenados: primero coincidencias por prefijo, luego por apellido y nombre
+     */
+    public List<Resultado> buscarPacientes(String texto, int limite) {
+        return buscar(texto, limite, e -> e.pacienteId != null);
+    }
+
+    /**
+     * Busca médicos por DNI (prefijo) o por nombre y apellidos
+     * @param texto Texto de búsqueda
+     * @param limite Número máximo de resultados
+     * @return Resultados ordenados: primero coincidencias por prefijo, luego por apellido y nombre
+     */
+    public List<Resultado> buscarMedicos(String texto, int limite) {
+        return buscar(texto, limite, e -> e.medicoId != null);
+    }
+
+    private List<Resultado> buscar(String texto, int limite, Predicate<Entrada> filtro) {
+        String consulta = normalizar(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        // Montículo de los peores resultados para conservar solo los mejores 'limite'
+        Comparator<Candidato> orden = Comparator
+            .comparingInt((Candidato c) -> c.rango)
+            .thenComparing(c -> c.entrada.textoOrden);
+        PriorityQueue<Candidato> mejores = new PriorityQueue<>(orden.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (consulta.chars().allMatch(Character::isDigit)) {
+                for (Integer id : porDni.subMap(consulta, true, consulta + Character.MAX_VALUE, false).values()) {
+                    Entrada entrada = entradas.get(id);
+                    if (filtro.test(entrada)) {
+                        agregar(mejores, new Candidato(entrada, 0), limite, orden);
+                    }
+                }
+            } else {
+                String[] tokens = consulta.split(" ");
+                ListaEnteros candidatos = listaMasCorta(tokens);
+                if (candidatos == null) {
+                    return List.of();
+                }
+                for (int i = 0; i < candidatos.tamano; i++) {
+                    Entrada entrada = entradas.get(candidatos.valores[i]);
+                    if (filtro.test(entrada) && contieneTodos(entrada, tokens)) {
+                        agregar(mejores, new Candidato(entrada, rango(entrada, tokens[0])), limite, orden);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidato> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(orden);
+        List<Resultado> resultados = new ArrayList<>(ordenados.size());
+        for (Candidato candidato : ordenados) {
+            Entrada e = candidato.entrada;
+            resultados.add(new Resultado(e.idPersona, e.pacienteId, e.medicoId, e.dni, e.nombre, e.apellido));
+        }
+        return resultados;
+    }
+
+    private static void agregar(PriorityQueue<Candidato> mejores, Candidato candidato, int limite,
+                                Comparator<Candidato> orden) {
+        if (mejores.size() < limite) {
+            mejores.add(candidato);
+        } else if (orden.compare(candidato, mejores.peek()) < 0) {
+            mejores.poll();
+            mejores.add(candidato);
+        }
+    }
+
+    /**
+     * Obtiene la lista de entradas más corta entre los trigramas de los términos de búsqueda
+     */
+    private ListaEnteros listaMasCorta(String[] tokens) {
+        ListaEnteros menor = null;
+        for (String token : tokens) {
+            for (String trigrama : trigramasDeConsulta(token)) {
+                ListaEnteros lista = trigramas.get(trigrama);
+                if (lista == null) {
+                    return null;
+                }
+                if (menor == null || lista.tamano < menor.tamano) {
+                    menor = lista;
+                }
+            }
+        }
+        return menor;
+    }
+
+    private static boolean contieneTodos(Entrada entrada, String[] tokens) {
+        for (String token : tokens) {
+            if (!entrada.textoBusqueda.contains(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 0 si algún nombre o apellido empieza con el término, 1 en caso contrario
+     */
+    private static int rango(Entrada entrada, String token) {
+        return entrada.textoBusqueda.startsWith(token) || entrada.textoBusqueda.contains(" " + token) ? 0 : 1;
+    }
+
+    private void indexarSinBloqueo(Long idPersona, String dni, String nombre, String apellido,
+                                   Long pacienteId, Long medicoId) {
+        Integer anterior = entradaPorPersona.get(idPersona);
+        if (anterior == null) {
+            int id = entradas.size();
+            Entrada entrada = new Entrada(idPersona, pacienteId, medicoId, dni, nombre, apellido);
+            entradas.add(entrada);
+            entradaPorPersona.put(idPersona, id);
+            if (dni != null) {
+                porDni.put(dni, id);
+            }
+            for (String trigrama : trigramasDeEntrada(entrada)) {
+                trigramas.computeIfAbsent(trigrama, t -> new ListaEnteros()).agregar(id);
+            }
+            return;
+        }
+
+        // Reindexación: se reutiliza la posición y solo se actualizan los trigramas que cambian,
+        // para que las listas no acumulen identificadores de versiones anteriores
+        int id = anterior;
+        Entrada entradaAnterior = entradas.get(id);
+        // Conservar los vínculos existentes si la actualización no los informa
+        if (pacienteId == null) {
+            pacienteId = entradaAnterior.pacienteId;
+        }
+        if (medicoId == null) {
+            medicoId = entradaAnterior.medicoId;
+        }
+        Entrada entrada = new Entrada(idPersona, pacienteId, medicoId, dni, nombre, apellido);
+        entradas.set(id, entrada);
+
+        if (entradaAnterior.dni != null) {
+            porDni.remove(entradaAnterior.dni, id);
+        }
+        if (dni != null) {
+            porDni.put(dni, id);
+        }
+
+        Set<String> trigramasAnteriores = trigramasDeEntrada(entradaAnterior);
+        Set<String> trigramasNuevos = trigramasDeEntrada(entrada);
+        for (String trigrama : trigramasAnteriores) {
+            if (!trigramasNuevos.contains(trigrama)) {
+                ListaEnteros lista = trigramas.get(trigrama);
+                lista.quitar(id);
+                if (lista.tamano == 0) {
+                    trigramas.remove(trigrama);
+                }
+            }
+        }
+        for (String trigrama : trigramasNuevos) {
+            if (!trigramasAnteriores.contains(trigrama)) {
+                trigramas.computeIfAbsent(trigrama, t -> new ListaEnteros()).agregar(id);
+            }
+        }
+    }
+
+    /**
+     * Trigramas de los nombres y apellidos de una entrada, con dos espacios delante de cada palabra
+     * para indexar también sus prefijos
+     */
+    private static Set<String> trigramasDeEntrada(Entrada entrada) {
+        Set<String> resultado = new HashSet<>();
+        for (String palabra : entrada.textoBusqueda.split(" ")) {
+            if (palabra.isEmpty()) {
+                continue;
+            }
+            String relleno = "  " + palabra;
+            for (int i = 0; i + 3 <= relleno.length(); i++) {
+                resultado.add(relleno.substring(i, i + 3));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Trigramas a consultar para un término: los del prefijo si es corto, o los internos si no
+     */
+    private static List<String> trigramasDeConsulta(String token) {
+        if (token.length() < 3) {
+            return List.of(("  " + token).substring(token.length() - 1));
+        }
+        List<String> resultado = new ArrayList<>(token.length() - 2);
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            resultado.add(token.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    /**
+     * Normaliza un texto: minúsculas, sin tildes y con espacios simples
+     * @param texto Texto original
+     * @return Texto normalizado
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return sinTildes.toLowerCase(Locale.ROOT).replaceAll("[^\\p{Alnum}]+", " ").trim();
+    }
+
+    /**
+     * Resultado de una búsqueda
+     */
+    public record Resultado(Long idPersona, Long pacienteId, Long medicoId, String dni, String nombre, String apellido) {
+    }
+
+    private record Candidato(Entrada entrada, int rango) {
+    }
+
+    private static final class Entrada {
+        private final Long idPersona;
+        private final Long pacienteId;
+        private final Long medicoId;
+        private final String dni;
+        private final String nombre;
+        private final String apellido;
+        private final String textoBusqueda;
+        private final String textoOrden;
+
+        private Entrada(Long idPersona, Long pacienteId, Long medicoId, String dni, String nombre, String apellido) {
+            this.idPersona = idPersona;
+            this.pacienteId = pacienteId;
+            this.medicoId = medicoId;
+            this.dni = dni;
+            this.nombre = nombre;
+            this.apellido = apellido;
+            this.textoBusqueda = normalizar(nombre + " " + apellido);
+            this.textoOrden = normalizar(apellido + " " + nombre);
+        }
+    }
+
+    /**
+     * Lista de enteros ampliable sin conversión a objetos
+     */
+    private static final class ListaEnteros {
+        private int[] valores = new int[4];
+        private int tamano;
+
+        private void agregar(int valor) {
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, tamano * 2);
+            }
+            valores[tamano++] = valor;
+        }
+
+        private void quitar(int valor) {
+            for (int i = 0; i < tamano; i++) {
+                if (valores[i] == valor) {
+                    System.arraycopy(valores, i + 1, valores, i, tamano - i - 1);
+                    tamano--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.sanacorp.services;
 
+import com.sanacorp.dto.DisponibilidadMedico;
+import com.sanacorp.dto.ResultadoTransicionCita;
 import com.sanacorp.models.Cita;
 import com.sanacorp.models.Cita.EstadoCita;
 import com.sanacorp.models.Consultorio;
@@ -9,16 +11,31 @@ import com.sanacorp.repositories.CitaRepository;
 import com.sanacorp.repositories.ConsultorioRepository;
 import com.sanacorp.repositories.MedicoRepository;
 import com.sanacorp.repositories.PacienteRepository;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Servicio para la gestión de citas médicas
@@ -43,8 +60,32 @@ public class CitaService {
     @Autowired
     private HorarioService horarioService;
     
-    // Duración estándar de una cita en minutos
-    private static final int DURACION_CITA_MINUTOS = 30;
+    @Autowired
+    private OcupacionMedicoService ocupacionMedicoService;
+    
+    @Autowired
+    private BloqueoMedico bloqueoMedico;
+    
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MetricasService metricasService;
+    
+    // Duración estándar de una cita en minutos; las citas y los horarios se alinean a esta cuadrícula
+    public static final int DURACION_CITA_MINUTOS = 30;
+    
+    // Número máximo de reintentos en el siguiente horario libre al reservar de forma optimista
+    private static final int MAXIMO_REINTENTOS_RESERVA = 3;
+    
+    // Días posteriores a la fecha solicitada en los que se busca el siguiente horario libre
+    private static final int DIAS_BUSQUEDA_SIGUIENTE_HORARIO = 6;
+    
+    // Número máximo de citas en una transición masiva
+    public static final int MAXIMO_CITAS_POR_TRANSICION = 1000;
     
     /**
      * Obtiene las citas para una fecha específica
@@ -104,11 +145,122 @@ public class CitaService {
      */
     @Transactional
     public Cita registrarNuevaCita(Cita cita) {
+        metricasService.medirOperacionCita(MetricasService.OPERACION_RESERVAR);
+        validarYPrepararCita(cita);
+        
+        // Serializar las reservas del mismo médico hasta el final de la transacción
+        bloqueoMedico.bloquearHastaFinTransaccion(cita.getMedico().getId());
+        
+        // Con varias instancias el índice local puede estar desactualizado: recargar el día bajo el bloqueo
+        if (bloqueoMedico.esDistribuido()) {
+            ocupacionMedicoService.recargar(cita.getMedico().getId(), cita.getFechaHora().toLocalDate());
+        }
+        
+        // Validar que no haya conflictos con otras citas del médico y reservar el horario en el índice
+        if (!ocupacionMedicoService.reservar(cita.getMedico().getId(), cita.getFechaHora(), DURACION_CITA_MINUTOS)) {
+            metricasService.registrarConflicto();
+            throw new RuntimeException("El médico ya tiene una cita programada en ese horario");
+        }
+        
+        // Guardar la cita
+        Cita citaGuardada = citaRepository.save(cita);
+        ejecutarAlConfirmar(metricasService::registrarReserva);
+        return citaGuardada;
+    }
+    
+    /**
+     * Registra una nueva cita sin verificar conflictos previamente
+     * La restricción única (medico_id, slot_activo) de la base de datos detecta los horarios ocupados;
+     * opcionalmente se reintenta en el siguiente horario libre del médico
+     * @param cita Datos de la cita a registrar
+     * @param reintentarEnSiguienteHorario true para reservar el siguiente horario libre si el solicitado está ocupado
+     * @return Resultado de la reserva
+     * @throws RuntimeException si hay errores de validación
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoReserva reservarCitaOptimista(Cita cita, boolean reintentarEnSiguienteHorario) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        LocalDateTime fechaSolicitada = cita.getFechaHora();
+        Long medicoId = cita.getMedico().getId();
+        Timer.Sample muestra = Timer.start();
+        String resultado = MetricasService.RESULTADO_ERROR;
+        
+        try {
+            LocalDateTime fechaIntento = fechaSolicitada;
+            for (int intento = 0; intento <= MAXIMO_REINTENTOS_RESERVA; intento++) {
+                // Cada intento guarda una entidad nueva: la del intento fallido quedó con id y versión asignados
+                Cita nueva = copiarSolicitud(cita, fechaIntento);
+                try {
+                    Cita citaGuardada = transaccion.execute(status -> {
+                        validarYPrepararCita(nueva);
+                        return citaRepository.saveAndFlush(nueva);
+                    });
+                    ocupacionMedicoService.recargar(medicoId, citaGuardada.getFechaHora().toLocalDate());
+                    metricasService.registrarReserva();
+                    resultado = MetricasService.RESULTADO_EXITO;
+                    return new ResultadoReserva(citaGuardada, fechaSolicitada, null);
+                } catch (DataIntegrityViolationException e) {
+                    if (!esHorarioOcupado(e)) {
+                        throw e;
+                    }
+                    metricasService.registrarConflicto();
+                }
+                
+                if (!reintentarEnSiguienteHorario || intento == MAXIMO_REINTENTOS_RESERVA) {
+                    break;
+                }
+                Optional<LocalDateTime> siguiente = buscarSiguienteHorarioLibre(medicoId, fechaIntento);
+                if (siguiente.isEmpty()) {
+                    break;
+                }
+                fechaIntento = siguiente.get();
+            }
+            
+            resultado = MetricasService.RESULTADO_CONFLICTO;
+            return new ResultadoReserva(null, fechaSolicitada, "El médico ya tiene una cita programada en ese horario");
+        } finally {
+            metricasService.registrarOperacionCita(MetricasService.OPERACION_RESERVAR, muestra, resultado);
+        }
+    }
+    
+    /**
+     * Indica si una hora coincide con la cuadrícula de citas (múltiplo de DURACION_CITA_MINUTOS, sin segundos)
+     * Con todas las citas en la cuadrícula, el inicio del intervalo (slot_activo) identifica la cita completa
+     * y dos citas del mismo médico se solapan solo si comparten intervalo
+     * @param hora Hora a verificar
+     * @return true si la hora está alineada
+     */
+    public static boolean estaEnCuadricula(LocalTime hora) {
+        return hora.getSecond() == 0 && hora.getNano() == 0 && hora.getMinute() % DURACION_CITA_MINUTOS == 0;
+    }
+    
+    /**
+     * Crea una cita nueva, sin id ni versión, con los datos solicitados y la fecha del intento
+     */
+    private static Cita copiarSolicitud(Cita solicitud, LocalDateTime fechaHora) {
+        Cita cita = new Cita(fechaHora, solicitud.getMotivo(), solicitud.getPaciente(),
+                             solicitud.getMedico(), solicitud.getConsultorio());
+        cita.setObservaciones(solicitud.getObservaciones());
+        return cita;
+    }
+    
+    /**
+     * Valida los datos de una nueva cita y asigna sus entidades relacionadas y su estado inicial
+     * @param cita Cita a validar
+     * @throws RuntimeException si hay errores de validación
+     */
+    private void validarYPrepararCita(Cita cita) {
         // Validar que la fecha no sea en el pasado
         if (cita.getFechaHora().isBefore(LocalDateTime.now())) {
             throw new RuntimeException("No se puede programar una cita en el pasado");
         }
         
+        // Validar que la hora coincida con un intervalo de cita (por ejemplo 10:00 o 10:30)
+        if (!estaEnCuadricula(cita.getFechaHora().toLocalTime())) {
+            throw new RuntimeException("La hora de la cita debe comenzar en un intervalo de "
+                                       + DURACION_CITA_MINUTOS + " minutos (por ejemplo 10:00 o 10:30)");
+        }
+        
         // Validar que el paciente exista
         Optional<Paciente> pacienteOpt = pacienteRepository.findById(cita.getPaciente().getId());
         if (pacienteOpt.isEmpty()) {
@@ -144,17 +296,6 @@ public class CitaService {
             throw new RuntimeException("El médico no tiene horario disponible para la fecha y hora seleccionada");
         }
         
-        // Validar que no haya conflictos con otras citas del médico
-        LocalDateTime fechaInicio = cita.getFechaHora();
-        LocalDateTime fechaFin = fechaInicio.plusMinutes(DURACION_CITA_MINUTOS);
-        
-        List<Cita> citasConflicto = citaRepository.findConflictosHorario(
-            cita.getMedico().getId(), fechaInicio, fechaFin);
-        
-        if (!citasConflicto.isEmpty()) {
-            throw new RuntimeException("El médico ya tiene una cita programada en ese horario");
-        }
-        
         // Establecer estado inicial y fecha de creación
         cita.setEstado(EstadoCita.PROGRAMADA);
         cita.setFechaCreacion(LocalDateTime.now());
@@ -163,9 +304,26 @@ public class CitaService {
         cita.setPaciente(pacienteOpt.get());
         cita.setMedico(medicoOpt.get());
         cita.setConsultorio(consultorioOpt.get());
-        
-        // Guardar la cita
-        return citaRepository.save(cita);
+    }
+    
+    /**
+     * Indica si una violación de integridad corresponde a la restricción de horario único por médico
+     */
+    private static boolean esHorarioOcupado(DataIntegrityViolationException e) {
+        String mensaje = e.getMostSpecificCause().getMessage();
+        return mensaje != null && mensaje.toLowerCase().contains("uk_cita_medico_slot_activo");
+    }
+    
+    /**
+     * Busca el siguiente horario libre del médico posterior a la fecha indicada, dentro de la semana siguiente
+     */
+    private Optional<LocalDateTime> buscarSiguienteHorarioLibre(Long medicoId, LocalDateTime despuesDe) {
+        LocalDate desde = despuesDe.toLocalDate();
+        List<DisponibilidadMedico> disponibilidad = disponibilidadService.getHorariosLibres(
+            List.of(medicoId), desde, desde.plusDays(DIAS_BUSQUEDA_SIGUIENTE_HORARIO));
+        return disponibilidad.get(0).horariosLibres().stream()
+            .filter(horario -> horario.isAfter(despuesDe))
+            .findFirst();
     }
     
     /**
@@ -177,6 +335,7 @@ public class CitaService {
      */
     @Transactional
     public Cita cancelarCita(Long idCita, String observaciones) {
+        metricasService.medirOperacionCita(MetricasService.OPERACION_CANCELAR);
         Optional<Cita> citaOpt = citaRepository.findById(idCita);
         if (citaOpt.isEmpty()) {
             throw new RuntimeException("La cita no existe");
@@ -193,7 +352,9 @@ public class CitaService {
         cita.setEstado(EstadoCita.CANCELADA);
         cita.setObservaciones(observaciones);
         
-        return citaRepository.save(cita);
+        Cita citaGuardada = citaRepository.save(cita);
+        liberarHorarioAlConfirmar(citaGuardada);
+        return citaGuardada;
     }
     
     /**
@@ -205,6 +366,7 @@ public class CitaService {
      */
     @Transactional
     public Cita completarCita(Long idCita, String observaciones) {
+        metricasService.medirOperacionCita(MetricasService.OPERACION_COMPLETAR);
         Optional<Cita> citaOpt = citaRepository.findById(idCita);
         if (citaOpt.isEmpty()) {
             throw new RuntimeException("La cita no existe");
@@ -221,7 +383,9 @@ public class CitaService {
         cita.setEstado(EstadoCita.COMPLETADA);
         cita.setObservaciones(observaciones);
         
-        return citaRepository.save(cita);
+        Cita citaGuardada = citaRepository.save(cita);
+        liberarHorarioAlConfirmar(citaGuardada);
+        return citaGuardada;
     }
     
     /**
@@ -232,6 +396,7 @@ public class CitaService {
      */
     @Transactional
     public Cita confirmarCita(Long idCita) {
+        metricasService.medirOperacionCita(MetricasService.OPERACION_CONFIRMAR);
         Optional<Cita> citaOpt = citaRepository.findById(idCita);
         if (citaOpt.isEmpty()) {
             throw new RuntimeException("La cita no existe");
@@ -259,6 +424,7 @@ public class CitaService {
      */
     @Transactional
     public Cita marcarInasistencia(Long idCita, String observaciones) {
+        metricasService.medirOperacionCita(MetricasService.OPERACION_INASISTENCIA);
         Optional<Cita> citaOpt = citaRepository.findById(idCita);
         if (citaOpt.isEmpty()) {
             throw new RuntimeException("La cita no existe");
@@ -280,7 +446,121 @@ public class CitaService {
         cita.setEstado(EstadoCita.NO_ASISTIO);
         cita.setObservaciones(observaciones);
         
-        return citaRepository.save(cita);
+        Cita citaGuardada = citaRepository.save(cita);
+        liberarHorarioAlConfirmar(citaGuardada);
+        return citaGuardada;
+    }
+    
+    /**
+     * Aplica una misma transición de estado a un conjunto de citas en una sola transacción
+     * Las citas se validan con las mismas reglas que las transiciones individuales y se actualizan
+     * con una única sentencia UPDATE condicionada al estado de origen
+     * @param ids IDs de las citas
+     * @param transicion Transición a aplicar
+     * @param observaciones Observaciones a registrar (se ignoran al confirmar), o null para conservar las existentes
+     * @return Resultado de cada cita, en el orden recibido y sin duplicados
+     * @throws RuntimeException si se supera el número máximo de citas por proceso
+     */
+    @Transactional
+    public List<ResultadoTransicionCita> aplicarTransicionMasiva(List<Long> ids, TransicionCita transicion,
+                                                                 String observaciones) {
+        metricasService.medirOperacionCita(MetricasService.OPERACION_TRANSICION_MASIVA);
+        Set<Long> unicos = new LinkedHashSet<>(ids);
+        unicos.remove(null);
+        if (unicos.isEmpty()) {
+            return List.of();
+        }
+        if (unicos.size() > MAXIMO_CITAS_POR_TRANSICION) {
+            throw new RuntimeException("No se pueden procesar más de " + MAXIMO_CITAS_POR_TRANSICION + " citas a la vez");
+        }
+        
+        Map<Long, CitaRepository.EstadoActual> actuales = new HashMap<>();
+        for (CitaRepository.EstadoActual actual : citaRepository.findEstadoActualByIdIn(unicos)) {
+            actuales.put(actual.getIdCita(), actual);
+        }
+        
+        // Validar cada cita con las reglas de la transición
+        Map<Long, String> rechazos = new HashMap<>();
+        List<Long> candidatas = new ArrayList<>();
+        LocalDate hoy = LocalDate.now();
+        for (Long id : unicos) {
+            CitaRepository.EstadoActual actual = actuales.get(id);
+            if (actual == null) {
+                rechazos.put(id, "La cita no existe");
+            } else if (!transicion.getEstadosOrigen().contains(actual.getEstado())) {
+                rechazos.put(id, "La transición no se permite desde el estado actual: " + actual.getEstado());
+            } else if (transicion == TransicionCita.INASISTENCIA && actual.getFechaHora().toLocalDate().isAfter(hoy)) {
+                rechazos.put(id, "No se puede marcar inasistencia para citas futuras");
+            } else {
+                candidatas.add(id);
+            }
+        }
+        
+        Set<Long> aplicadas = new HashSet<>();
+        if (!candidatas.isEmpty()) {
+            int actualizadas = transicion.liberaHorario()
+                ? citaRepository.cerrarCitas(candidatas, transicion.getEstadosOrigen(), transicion.getEstadoDestino(), observaciones)
+                : citaRepository.actualizarEstadoActivo(candidatas, transicion.getEstadosOrigen(), transicion.getEstadoDestino());
+            
+            if (actualizadas == candidatas.size()) {
+                aplicadas.addAll(candidatas);
+            } else {
+                // Otra transacción cambió alguna cita entre la lectura y la actualización: identificar cuáles
+                for (CitaRepository.EstadoActual actual : citaRepository.findEstadoActualByIdIn(candidatas)) {
+                    if (actual.getEstado() == transicion.getEstadoDestino()) {
+                        aplicadas.add(actual.getIdCita());
+                    } else {
+                        rechazos.put(actual.getIdCita(), "La cita cambió de estado durante el proceso: " + actual.getEstado());
+                    }
+                }
+            }
+        }
+        
+        if (transicion.liberaHorario() && !aplicadas.isEmpty()) {
+            List<CitaRepository.EstadoActual> liberadas = new ArrayList<>(aplicadas.size());
+            for (Long id : aplicadas) {
+                liberadas.add(actuales.get(id));
+            }
+            ejecutarAlConfirmar(() -> {
+                for (CitaRepository.EstadoActual cita : liberadas) {
+                    ocupacionMedicoService.liberar(cita.getMedicoId(), cita.getFechaHora(), DURACION_CITA_MINUTOS);
+                }
+            });
+        }
+        
+        List<ResultadoTransicionCita> resultados = new ArrayList<>(unicos.size());
+        for (Long id : unicos) {
+            boolean aplicada = aplicadas.contains(id);
+            resultados.add(new ResultadoTransicionCita(id, aplicada, aplicada ? null : rechazos.get(id)));
+        }
+        return resultados;
+    }
+    
+    /**
+     * Libera el horario de la cita en el índice de ocupación una vez confirmada la transacción
+     * @param cita Cita que dejó de ocupar el horario del médico
+     */
+    private void liberarHorarioAlConfirmar(Cita cita) {
+        Long medicoId = cita.getMedico().getId();
+        LocalDateTime fechaHora = cita.getFechaHora();
+        
+        ejecutarAlConfirmar(() -> ocupacionMedicoService.liberar(medicoId, fechaHora, DURACION_CITA_MINUTOS));
+    }
+    
+    /**
+     * Ejecuta una acción una vez confirmada la transacción actual, o de inmediato si no hay transacción
+     */
+    private void ejecutarAlConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
     }
     
     /**
@@ -295,22 +575,107 @@ public class CitaService {
     
     /**
      * Obtiene estadísticas de citas para el dashboard
-     * @return Mapa con estadísticas de citas
+     * @return Estadísticas de citas del día actual
      */
     @Transactional(readOnly = true)
     public CitaEstadisticas getEstadisticasCitas() {
         LocalDate hoy = LocalDate.now();
+        return getEstadisticasCitas(hoy, hoy);
+    }
+    
+    /**
+     * Obtiene estadísticas de citas para un rango de fechas con una sola consulta agregada
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @return Estadísticas de citas en el rango especificado
+     */
+    @Transactional(readOnly = true)
+    public CitaEstadisticas getEstadisticasCitas(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new RuntimeException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        
+        Map<EstadoCita, Long> conteos = new EnumMap<>(EstadoCita.class);
+        for (CitaRepository.ConteoPorEstado conteo : citaRepository.countAgrupadoPorEstado(
+                desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            conteos.put(conteo.getEstado(), conteo.getTotal());
+        }
         
         CitaEstadisticas estadisticas = new CitaEstadisticas();
-        estadisticas.setCitasHoy(citaRepository.countByEstadoAndFecha(EstadoCita.PROGRAMADA, hoy) + 
-                                citaRepository.countByEstadoAndFecha(EstadoCita.CONFIRMADA, hoy));
-        estadisticas.setCitasCompletadasHoy(citaRepository.countByEstadoAndFecha(EstadoCita.COMPLETADA, hoy));
-        estadisticas.setCitasCanceladasHoy(citaRepository.countByEstadoAndFecha(EstadoCita.CANCELADA, hoy));
-        estadisticas.setCitasInasistenciasHoy(citaRepository.countByEstadoAndFecha(EstadoCita.NO_ASISTIO, hoy));
+        estadisticas.setCitasHoy(conteos.getOrDefault(EstadoCita.PROGRAMADA, 0L) +
+                                conteos.getOrDefault(EstadoCita.CONFIRMADA, 0L));
+        estadisticas.setCitasCompletadasHoy(conteos.getOrDefault(EstadoCita.COMPLETADA, 0L));
+        estadisticas.setCitasCanceladasHoy(conteos.getOrDefault(EstadoCita.CANCELADA, 0L));
+        estadisticas.setCitasInasistenciasHoy(conteos.getOrDefault(EstadoCita.NO_ASISTIO, 0L));
         
         return estadisticas;
     }
     
+    /**
+     * Transiciones de estado que admiten procesamiento masivo
+     */
+    public enum TransicionCita {
+        CONFIRMAR(EstadoCita.CONFIRMADA, EnumSet.of(EstadoCita.PROGRAMADA)),
+        COMPLETAR(EstadoCita.COMPLETADA, Cita.ESTADOS_COMPLETABLES),
+        CANCELAR(EstadoCita.CANCELADA, Cita.ESTADOS_CANCELABLES),
+        INASISTENCIA(EstadoCita.NO_ASISTIO, EnumSet.of(EstadoCita.PROGRAMADA, EstadoCita.CONFIRMADA));
+        
+        private final EstadoCita estadoDestino;
+        private final Set<EstadoCita> estadosOrigen;
+        
+        TransicionCita(EstadoCita estadoDestino, Set<EstadoCita> estadosOrigen) {
+            this.estadoDestino = estadoDestino;
+            this.estadosOrigen = estadosOrigen;
+        }
+        
+        public EstadoCita getEstadoDestino() {
+            return estadoDestino;
+        }
+        
+        public Set<EstadoCita> getEstadosOrigen() {
+            return estadosOrigen;
+        }
+        
+        public boolean liberaHorario() {
+            return !OcupacionMedicoService.ocupaHorario(estadoDestino);
+        }
+    }
+    
+    /**
+     * Clase interna para el resultado de una reserva optimista
+     */
+    public static class ResultadoReserva {
+        private final Cita cita;
+        private final LocalDateTime fechaSolicitada;
+        private final String mensaje;
+        
+        public ResultadoReserva(Cita cita, LocalDateTime fechaSolicitada, String mensaje) {
+            this.cita = cita;
+            this.fechaSolicitada = fechaSolicitada;
+            this.mensaje = mensaje;
+        }
+        
+        public boolean isReservada() {
+            return cita != null;
+        }
+        
+        public boolean isReprogramada() {
+            return cita != null && !cita.getFechaHora().equals(fechaSolicitada);
+        }
+        
+        public Cita getCita() {
+            return cita;
+        }
+        
+        public LocalDateTime getFechaSolicitada() {
+            return fechaSolicitada;
+        }
+        
+        public String getMensaje() {
+            return mensaje;
+        }
+    }
+    
     /**
      * Clase interna para estadísticas de citas
      */
@@ -1,8 +1,12 @@
 package com.sanacorp.services;
 
+import com.sanacorp.config.CacheConfig;
+import com.sanacorp.dto.ConsultorioResumen;
 import com.sanacorp.models.Consultorio;
 import com.sanacorp.repositories.ConsultorioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -21,11 +25,13 @@ public class ConsultorioService {
     
     /**
      * Obtiene todos los consultorios activos
-     * @return Lista de consultorios activos
+     * La lista en caché se comparte entre peticiones, por eso es inmutable y no contiene entidades
+     * @return Lista inmutable de consultorios activos
      */
     @Transactional(readOnly = true)
-    public List<Consultorio> getAllConsultoriosActivos() {
-        return consultorioRepository.findAllActivos();
+    @Cacheable(CacheConfig.CONSULTORIOS_ACTIVOS)
+    public List<ConsultorioResumen> getAllConsultoriosActivos() {
+        return List.copyOf(consultorioRepository.findResumenes());
     }
     
     /**
@@ -65,6 +71,7 @@ public class ConsultorioService {
      * @throws RuntimeException si ya existe un consultorio con el mismo nombre
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CONSULTORIOS_ACTIVOS, allEntries = true)
     public Consultorio registrarConsultorio(Consultorio consultorio) {
         // Validar que no exista otro consultorio con el mismo nombre
         if (consultorioRepository.existsByNombre(consultorio.getNombre())) {
@@ -81,6 +88,7 @@ public class ConsultorioService {
      * @throws RuntimeException si hay errores de validación
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CONSULTORIOS_ACTIVOS, allEntries = true)
     public Consultorio actualizarConsultorio(Consultorio consultorio) {
         Optional<Consultorio> consultorioExistente = consultorioRepository.findById(consultorio.getId());
         if (consultorioExistente.isEmpty()) {
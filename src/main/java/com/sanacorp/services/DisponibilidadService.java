@@ -0,0 +1,272 @@
+package com.sanacorp.services;
+
+import com.sanacorp.dto.DisponibilidadMedico;
+import com.sanacorp.dto.HorarioLibre;
+import com.sanacorp.dto.MedicoResumen;
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Horario;
+import com.sanacorp.repositories.CitaRepository;
+import com.sanacorp.repositories.HorarioRepository;
+import com.sanacorp.repositories.MedicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Servicio para el cálculo de horarios libres de los médicos
+ * Obtiene los horarios y las citas activas de todos los médicos consultados con una consulta cada uno
+ * y recorre en paralelo los intervalos de atención y las citas ordenadas
+ */
+@Service
+@Transactional(readOnly = true)
+public class DisponibilidadService {
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private MetricasService metricasService;
+
+    // Número máximo de días que se pueden consultar en una sola petición
+    public static final int MAXIMO_DIAS_CONSULTA = 31;
+
+    // Número máximo de médicos que se pueden consultar en una sola petición
+    public static final int MAXIMO_MEDICOS_CONSULTA = 50;
+
+    /**
+     * Obtiene los horarios libres de uno o varios médicos en un rango de fechas
+     * @param medicoIds IDs de los médicos
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @return Lista con los horarios libres de cada médico, en el orden solicitado
+     * @throws RuntimeException si el rango o la lista de médicos no son válidos
+     */
+    public List<DisponibilidadMedico> getHorariosLibres(List<Long> medicoIds, LocalDate desde, LocalDate hasta) {
+        return metricasService.medirDisponibilidad("horarios-libres", () -> consultarHorariosLibres(medicoIds, desde, hasta));
+    }
+
+    private List<DisponibilidadMedico> consultarHorariosLibres(List<Long> medicoIds, LocalDate desde, LocalDate hasta) {
+        if (medicoIds == null || medicoIds.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un médico");
+        }
+        if (medicoIds.size() > MAXIMO_MEDICOS_CONSULTA) {
+            throw new RuntimeException("No se pueden consultar más de " + MAXIMO_MEDICOS_CONSULTA + " médicos a la vez");
+        }
+        validarRango(desde, hasta);
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(medicoIds));
+        LocalDateTime inicio = desde.atStartOfDay();
+        LocalDateTime fin = hasta.plusDays(1).atStartOfDay();
+
+        Map<Long, List<Horario>> horarios = agruparHorarios(horarioRepository.findByMedicoIdIn(ids));
+        Map<Long, List<Cita>> citas = agruparCitas(citaRepository.findActivasByMedicoIdInAndRangoFechaHora(ids, inicio, fin));
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<DisponibilidadMedico> resultado = new ArrayList<>(ids.size());
+        for (Long medicoId : ids) {
+            List<LocalDateTime> libres = calcularHorariosLibres(
+                horarios.getOrDefault(medicoId, List.of()),
+                citas.getOrDefault(medicoId, List.of()),
+                desde, hasta, ahora);
+            resultado.add(new DisponibilidadMedico(medicoId, libres));
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca los primeros horarios libres entre todos los médicos de una especialidad
+     * Combina los horarios libres de cada médico con una cola de prioridad ordenada por fecha y hora
+     * @param especialidadId ID de la especialidad
+     * @param desde Fecha y hora desde la que se buscan horarios (inclusive)
+     * @param hasta Fecha y hora límite de la búsqueda (exclusive)
+     * @param cantidad Número máximo de horarios a devolver
+     * @return Lista de horarios libres en orden cronológico
+     * @throws RuntimeException si el rango no es válido
+     */
+    public List<HorarioLibre> buscarPrimerosHorariosLibres(Long especialidadId, LocalDateTime desde,
+                                                           LocalDateTime hasta, int cantidad) {
+        return metricasService.medirDisponibilidad("primeros-horarios",
+            () -> consultarPrimerosHorariosLibres(especialidadId, desde, hasta, cantidad));
+    }
+
+    private List<HorarioLibre> consultarPrimerosHorariosLibres(Long especialidadId, LocalDateTime desde,
+                                                               LocalDateTime hasta, int cantidad) {
+        if (!hasta.isAfter(desde)) {
+            throw new RuntimeException("La fecha final debe ser posterior a la fecha inicial");
+        }
+        validarRango(desde.toLocalDate(), hasta.toLocalDate());
+
+        List<MedicoResumen> medicos = medicoRepository.findResumenByEspecialidadId(especialidadId);
+        if (medicos.isEmpty() || cantidad <= 0) {
+            return List.of();
+        }
+
+        List<Long> ids = medicos.stream().map(MedicoResumen::id).toList();
+        Map<Long, List<Horario>> horarios = agruparHorarios(horarioRepository.findByMedicoIdIn(ids));
+        // Un intervalo que empieza antes de 'hasta' termina hasta una duración de cita después
+        Map<Long, List<Cita>> citas = agruparCitas(citaRepository.findActivasByMedicoIdInAndRangoFechaHora(
+            ids, desde.toLocalDate().atStartOfDay(), hasta.plusMinutes(CitaService.DURACION_CITA_MINUTOS)));
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime minimo = desde.isAfter(ahora) ? desde : ahora;
+
+        // Cola con el siguiente horario libre de cada médico
+        PriorityQueue<CursorMedico> cola = new PriorityQueue<>(
+            Comparator.comparing(CursorMedico::actual).thenComparing(c -> c.medico().nombreCompleto()));
+        for (MedicoResumen medico : medicos) {
+            List<LocalDateTime> libres = calcularHorariosLibres(
+                horarios.getOrDefault(medico.id(), List.of()),
+                citas.getOrDefault(medico.id(), List.of()),
+                desde.toLocalDate(), hasta.toLocalDate(), minimo);
+            CursorMedico cursor = new CursorMedico(medico, libres, 0);
+            if (cursor.tieneActual(hasta)) {
+                cola.add(cursor);
+            }
+        }
+
+        List<HorarioLibre> resultado = new ArrayList<>(cantidad);
+        while (!cola.isEmpty() && resultado.size() < cantidad) {
+            CursorMedico cursor = cola.poll();
+            resultado.add(new HorarioLibre(cursor.medico().id(), cursor.medico().nombreCompleto(), cursor.actual()));
+            CursorMedico siguiente = cursor.avanzar();
+            if (siguiente.tieneActual(hasta)) {
+                cola.add(siguiente);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Posición en la lista de horarios libres de un médico
+     */
+    private record CursorMedico(MedicoResumen medico, List<LocalDateTime> libres, int posicion) {
+
+        LocalDateTime actual() {
+            return libres.get(posicion);
+        }
+
+        boolean tieneActual(LocalDateTime hasta) {
+            return posicion < libres.size() && libres.get(posicion).isBefore(hasta);
+        }
+
+        CursorMedico avanzar() {
+            return new CursorMedico(medico, libres, posicion + 1);
+        }
+    }
+
+    /**
+     * Valida un rango de fechas de consulta de disponibilidad
+     */
+    static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new RuntimeException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_CONSULTA) {
+            throw new RuntimeException("El rango de fechas no puede superar " + MAXIMO_DIAS_CONSULTA + " días");
+        }
+    }
+
+    /**
+     * Calcula los intervalos libres de un médico recorriendo a la vez sus horarios de atención y sus citas
+     * El recorrido de las citas solo avanza, así que los intervalos deben generarse en orden cronológico:
+     * si dos horarios del mismo día se solapan (HorarioService lo impide, pero no los datos cargados por
+     * otras vías), el segundo empieza donde termina el anterior. Los intervalos se alinean a la cuadrícula de
+ * citas (CitaService.estaEnCuadricula), la misma que exige la reserva; un horario anterior fuera de la
+ * cuadrícula empieza en el siguiente intervalo alineado
+     * @param horarios Horarios del médico ordenados por día y hora de inicio
+     * @param citas Citas activas del médico ordenadas por fecha y hora
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @param ahora Momento actual; los intervalos anteriores se descartan
+     * @return Fecha y hora de inicio de cada intervalo libre, en orden cronológico
+     */
+    static List<LocalDateTime> calcularHorariosLibres(List<Horario> horarios, List<Cita> citas,
+                                                      LocalDate desde, LocalDate hasta, LocalDateTime ahora) {
+        List<LocalDateTime> libres = new ArrayList<>();
+        if (horarios.isEmpty()) {
+            return libres;
+        }
+
+        int duracion = CitaService.DURACION_CITA_MINUTOS;
+        int siguienteCita = 0;
+
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            // No se programan citas los domingos
+            if (fecha.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            int diaSemana = fecha.getDayOfWeek().getValue();
+            int finHorarioAnterior = 0;
+
+            for (Horario horario : horarios) {
+                if (horario.getDiaSemana() != diaSemana) {
+                    continue;
+                }
+                int minutoInicio = alinearACuadricula(
+                    Math.max(horario.getHoraInicio().toSecondOfDay() / 60, finHorarioAnterior));
+                int minutoFin = horario.getHoraFin().toSecondOfDay() / 60;
+                finHorarioAnterior = Math.max(finHorarioAnterior, minutoFin);
+                for (int minuto = minutoInicio; minuto + duracion <= minutoFin; minuto += duracion) {
+                    LocalDateTime inicio = fecha.atStartOfDay().plusMinutes(minuto);
+                    LocalDateTime fin = inicio.plusMinutes(duracion);
+                    if (inicio.isBefore(ahora)) {
+                        continue;
+                    }
+
+                    // Descartar las citas que terminan antes del intervalo
+                    while (siguienteCita < citas.size()
+                           && !citas.get(siguienteCita).getFechaHora().plusMinutes(duracion).isAfter(inicio)) {
+                        siguienteCita++;
+                    }
+
+                    boolean ocupado = siguienteCita < citas.size()
+                                      && citas.get(siguienteCita).getFechaHora().isBefore(fin);
+                    if (!ocupado) {
+                        libres.add(inicio);
+                    }
+                }
+            }
+        }
+        return libres;
+    }
+
+    /**
+     * Redondea hacia arriba un minuto del día al siguiente inicio de intervalo de cita
+     */
+    private static int alinearACuadricula(int minuto) {
+        int duracion = CitaService.DURACION_CITA_MINUTOS;
+        return (minuto + duracion - 1) / duracion * duracion;
+    }
+
+    private static Map<Long, List<Horario>> agruparHorarios(List<Horario> horarios) {
+        Map<Long, List<Horario>> porMedico = new HashMap<>();
+        for (Horario horario : horarios) {
+            porMedico.computeIfAbsent(horario.getMedico().getId(), id -> new ArrayList<>()).add(horario);
+        }
+        return porMedico;
+    }
+
+    private static Map<Long, List<Cita>> agruparCitas(List<Cita> citas) {
+        Map<Long, List<Cita>> porMedico = new HashMap<>();
+        for (Cita cita : citas) {
+            porMedico.computeIfAbsent(cita.getMedico().getId(), id -> new ArrayList<>()).add(cita);
+        }
+        return porMedico;
+    }
+}
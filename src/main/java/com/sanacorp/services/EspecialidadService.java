@@ -4,9 +4,14 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sanacorp.config.CacheConfig;
+import com.sanacorp.dto.EspecialidadResumen;
 import com.sanacorp.models.Especialidad;
 import com.sanacorp.repositories.EspecialidadRepository;
 
@@ -23,11 +28,13 @@ public class EspecialidadService {
     
     /**
      * Obtiene todas las especialidades activas
-     * @return Lista de especialidades activas
+     * La lista en caché se comparte entre peticiones, por eso es inmutable y no contiene entidades
+     * @return Lista inmutable de especialidades activas
      */
     @Transactional(readOnly = true)
-    public List<Especialidad> getAllEspecialidadesActivas() {
-        return especialidadRepository.findAllActivas();
+    @Cacheable(CacheConfig.ESPECIALIDADES_ACTIVAS)
+    public List<EspecialidadResumen> getAllEspecialidadesActivas() {
+        return List.copyOf(especialidadRepository.findResumenes());
     }
     
     /**
@@ -48,7 +55,7 @@ public class EspecialidadService {
     @Transactional(readOnly = true)
     public List<Especialidad> buscarEspecialidades(String texto) {
         if (texto == null || texto.trim().isEmpty()) {
-            return getAllEspecialidadesActivas();
+            return especialidadRepository.findAllActivas();
         }
         return especialidadRepository.findByNombreOrDescripcionContaining(texto);
     }
@@ -70,6 +77,10 @@ public class EspecialidadService {
      * @throws RuntimeException si ya existe una especialidad con el mismo nombre
      */
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ESPECIALIDADES_ACTIVAS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ESPECIALIDADES, allEntries = true)
+    })
     public Especialidad registrarEspecialidad(Especialidad especialidad) {
         // Verificar si ya existe una especialidad con el mismo nombre
         if (especialidadRepository.findByNombre(especialidad.getNombre()).isPresent()) {
@@ -86,6 +97,10 @@ public class EspecialidadService {
      * @throws RuntimeException si hay errores de validación
      */
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ESPECIALIDADES_ACTIVAS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ESPECIALIDADES, allEntries = true)
+    })
     public Especialidad actualizarEspecialidad(Especialidad especialidad) {
         Optional<Especialidad> especialidadExistente = especialidadRepository.findById(especialidad.getId());
         if (especialidadExistente.isEmpty()) {
@@ -104,10 +119,11 @@ public class EspecialidadService {
     
     /**
      * Obtiene todas las especialidades
-     * @return Lista de todas las especialidades
+     * @return Lista inmutable de todas las especialidades
      */
     @Transactional(readOnly = true)
-    public List<Especialidad> listarTodas() {
-        return especialidadRepository.findAll();
+    @Cacheable(CacheConfig.ESPECIALIDADES)
+    public List<EspecialidadResumen> listarTodas() {
+        return List.copyOf(especialidadRepository.findResumenes());
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.sanacorp.services;
+
+import com.sanacorp.repositories.CitaRepository;
+import com.sanacorp.repositories.ConsultorioRepository;
+import com.sanacorp.repositories.EspecialidadRepository;
+import com.sanacorp.repositories.MedicoRepository;
+import com.sanacorp.repositories.PacienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+
+/**
+ * Servicio de estadísticas generales para el dashboard del administrador
+ * Utiliza únicamente consultas COUNT y agregadas, sin cargar entidades en memoria,
+ * y conserva el resultado durante un tiempo corto configurable
+ */
+@Service
+@Transactional(readOnly = true)
+public class EstadisticasService {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private EspecialidadRepository especialidadRepository;
+
+    @Autowired
+    private ConsultorioRepository consultorioRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    // Tiempo de vida de las estadísticas en caché
+    @Value("${sanacorp.estadisticas.ttl-segundos:30}")
+    private long ttlSegundos;
+
+    private volatile EstadisticasAdmin ultimasEstadisticas;
+
+    /**
+     * Obtiene las estadísticas del dashboard del administrador
+     * Reutiliza el último resultado mientras no haya expirado
+     * @return Estadísticas generales del sistema
+     */
+    public EstadisticasAdmin getEstadisticasAdmin() {
+        EstadisticasAdmin estadisticas = ultimasEstadisticas;
+        long ahora = System.currentTimeMillis();
+
+        if (estadisticas == null || ahora - estadisticas.getCalculadoEn() > ttlSegundos * 1000) {
+            estadisticas = calcularEstadisticas(ahora);
+            ultimasEstadisticas = estadisticas;
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Descarta las estadísticas en caché para forzar un nuevo cálculo
+     */
+    public void invalidar() {
+        ultimasEstadisticas = null;
+    }
+
+    private EstadisticasAdmin calcularEstadisticas(long calculadoEn) {
+        LocalDate hoy = LocalDate.now();
+
+        long citasHoy = 0;
+        for (CitaRepository.ConteoPorEstado conteo : citaRepository.countAgrupadoPorEstado(
+                hoy.atStartOfDay(), hoy.plusDays(1).atStartOfDay())) {
+            citasHoy += conteo.getTotal();
+        }
+
+        return new EstadisticasAdmin(
+            medicoRepository.count(),
+            pacienteRepository.countPacientes(),
+            especialidadRepository.count(),
+            consultorioRepository.count(),
+            citaRepository.count(),
+            citasHoy,
+            calculadoEn);
+    }
+
+    /**
+     * Clase interna para estadísticas del administrador
+     */
+    public static class EstadisticasAdmin {
+        private final long totalMedicos;
+        private final long totalPacientes;
+        private final long totalEspecialidades;
+        private final long totalConsultorios;
+        private final long totalCitas;
+        private final long citasHoy;
+        private final long calculadoEn;
+
+        public EstadisticasAdmin(long totalMedicos, long totalPacientes, long totalEspecialidades,
+                                 long totalConsultorios, long totalCitas, long citasHoy, long calculadoEn) {
+            this.totalMedicos = totalMedicos;
+            this.totalPacientes = totalPacientes;
+            this.totalEspecialidades = totalEspecialidades;
+            this.totalConsultorios = totalConsultorios;
+            this.totalCitas = totalCitas;
+            this.citasHoy = citasHoy;
+            this.calculadoEn = calculadoEn;
+        }
+
+        public long getTotalMedicos() {
+            return totalMedicos;
+        }
+
+        public long getTotalPacientes() {
+            return totalPacientes;
+        }
+
+        public long getTotalEspecialidades() {
+            return totalEspecialidades;
+        }
+
+        public long getTotalConsultorios() {
+            return totalConsultorios;
+        }
+
+        public long getTotalCitas() {
+            return totalCitas;
+        }
+
+        public long getCitasHoy() {
+            return citasHoy;
+        }
+
+        public long getCalculadoEn() {
+            return calculadoEn;
+        }
+    }
+}
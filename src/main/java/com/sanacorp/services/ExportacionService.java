@@ -0,0 +1,227 @@
+package com.sanacorp.services;
+
+import com.sanacorp.dto.CitaExportacion;
+import com.sanacorp.dto.PacienteExportacion;
+import com.sanacorp.models.Cita.EstadoCita;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de exportación de citas y pacientes a CSV
+ * Recorre los resultados con un cursor de solo avance y escribe cada fila directamente en la salida,
+ * enviándola por bloques, de modo que la memoria usada no depende del número de filas.
+ * Las consultas se crean aquí y no en los repositorios porque el tamaño de lectura JDBC depende de la
+ * base de datos (sanacorp.exportacion.tamano-lectura) y las anotaciones de Spring Data solo admiten valores fijos
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportacionService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Filas por lectura JDBC; en MySQL, Integer.MIN_VALUE hace que Connector/J envíe las filas una a una
+    // solo en estas consultas, sin activar useCursorFetch para toda la aplicación
+    @Value("${sanacorp.exportacion.tamano-lectura:1000}")
+    private int tamanoLectura;
+
+    // Número máximo de días de citas en una exportación
+    public static final int MAXIMO_DIAS_EXPORTACION = 366;
+
+    // Filas escritas entre cada envío de la salida al cliente
+    private static final int FILAS_POR_ENVIO = 1000;
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    // Sin entidades: las filas no se cargan en el contexto de persistencia
+    private static final String CONSULTA_CITAS =
+        "SELECT new com.sanacorp.dto.CitaExportacion(c.idCita, c.fechaHora, c.estado, per.dni, " +
+        "CONCAT(per.nombre, ' ', per.apellido), CONCAT(mper.nombre, ' ', mper.apellido), e.nombre, con.nombre, " +
+        "c.motivo, c.observaciones) " +
+        "FROM Cita c JOIN c.paciente p JOIN p.persona per " +
+        "JOIN c.medico m JOIN m.persona mper JOIN m.especialidad e LEFT JOIN c.consultorio con " +
+        "WHERE c.fechaHora >= :inicio AND c.fechaHora < :fin " +
+        "AND (:medicoId IS NULL OR m.id = :medicoId) " +
+        "AND (:estado IS NULL OR c.estado = :estado) " +
+        "ORDER BY c.fechaHora, c.idCita";
+
+    private static final String CONSULTA_PACIENTES =
+        "SELECT new com.sanacorp.dto.PacienteExportacion(p.id, per.dni, per.nombre, per.apellido, " +
+        "per.fechaNacimiento, per.genero, per.telefono, per.direccion, p.seguroMedico) " +
+        "FROM Paciente p JOIN p.persona per ORDER BY p.id";
+
+    /**
+     * Exporta las citas de un rango de fechas
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @param medicoId ID del médico, o null para todos
+     * @param estado Estado de las citas, o null para todos
+     * @param formato Formato del archivo
+     * @param salida Flujo de salida; no se cierra
+     * @return Número de citas exportadas
+     * @throws RuntimeException si el rango de fechas no es válido
+     */
+    public long exportarCitas(LocalDate desde, LocalDate hasta, Long medicoId, EstadoCita estado,
+                              FormatoExportacion formato, OutputStream salida) throws IOException {
+        validarRango(desde, hasta);
+
+        TypedQuery<CitaExportacion> consulta = consultaDeLectura(CONSULTA_CITAS, CitaExportacion.class)
+            .setParameter("inicio", desde.atStartOfDay())
+            .setParameter("fin", hasta.plusDays(1).atStartOfDay())
+            .setParameter("medicoId", medicoId)
+            .setParameter("estado", estado);
+        try (Stream<CitaExportacion> citas = consulta.getResultStream()) {
+            EscritorCsv escritor = new EscritorCsv(salida, formato);
+            escritor.fila("ID", "Fecha y hora", "Estado", "DNI paciente", "Paciente", "Médico", "Especialidad",
+                          "Consultorio", "Motivo", "Observaciones");
+
+            Iterator<CitaExportacion> iterador = citas.iterator();
+            while (iterador.hasNext()) {
+                CitaExportacion cita = iterador.next();
+                escritor.fila(cita.idCita(), cita.fechaHora().format(FORMATO_FECHA_HORA),
+                              cita.estado().getDescripcion(), cita.dniPaciente(), cita.paciente(), cita.medico(),
+                              cita.especialidad(), cita.consultorio(), cita.motivo(), cita.observaciones());
+            }
+            return escritor.terminar();
+        }
+    }
+
+    /**
+     * Exporta todos los pacientes
+     * @param formato Formato del archivo
+     * @param salida Flujo de salida; no se cierra
+     * @return Número de pacientes exportados
+     */
+    public long exportarPacientes(FormatoExportacion formato, OutputStream salida) throws IOException {
+        try (Stream<PacienteExportacion> pacientes =
+                 consultaDeLectura(CONSULTA_PACIENTES, PacienteExportacion.class).getResultStream()) {
+            EscritorCsv escritor = new EscritorCsv(salida, formato);
+            escritor.fila("ID", "DNI", "Nombre", "Apellido", "Fecha de nacimiento", "Género", "Teléfono",
+                          "Dirección", "Seguro médico");
+
+            Iterator<PacienteExportacion> iterador = pacientes.iterator();
+            while (iterador.hasNext()) {
+                PacienteExportacion paciente = iterador.next();
+                escritor.fila(paciente.id(), paciente.dni(), paciente.nombre(), paciente.apellido(),
+                              paciente.fechaNacimiento(), paciente.genero(), paciente.telefono(),
+                              paciente.direccion(), paciente.seguroMedico());
+            }
+            return escritor.terminar();
+        }
+    }
+
+    private <T> TypedQuery<T> consultaDeLectura(String jpql, Class<T> tipo) {
+        return entityManager.createQuery(jpql, tipo)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, tamanoLectura)
+            .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    /**
+     * Valida el rango de fechas de una exportación de citas
+     * @throws RuntimeException si el rango no es válido
+     */
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null) {
+            throw new RuntimeException("Debe indicar la fecha inicial y la fecha final");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new RuntimeException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_EXPORTACION) {
+            throw new RuntimeException("No se pueden exportar más de " + MAXIMO_DIAS_EXPORTACION + " días de citas");
+        }
+    }
+
+    /**
+     * Formato del archivo exportado
+     * EXCEL usa punto y coma como separador y marca UTF-8 (BOM) para que Excel en español
+     * lo abra directamente con columnas y tildes correctas
+     */
+    public enum FormatoExportacion {
+        CSV(',', false),
+        EXCEL(';', true);
+
+        private final char separador;
+        private final boolean marcaUtf8;
+
+        FormatoExportacion(char separador, boolean marcaUtf8) {
+            this.separador = separador;
+            this.marcaUtf8 = marcaUtf8;
+        }
+    }
+
+    /**
+     * Escritor de filas CSV (RFC 4180) que envía la salida al cliente cada FILAS_POR_ENVIO filas
+     */
+    private static final class EscritorCsv {
+        private final Writer writer;
+        private final FormatoExportacion formato;
+        private long filas = -1;
+
+        private EscritorCsv(OutputStream salida, FormatoExportacion formato) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+            this.formato = formato;
+            if (formato.marcaUtf8) {
+                writer.write('\uFEFF');
+            }
+        }
+
+        private void fila(Object... valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    writer.write(formato.separador);
+                }
+                if (valores[i] != null) {
+                    escribirCampo(valores[i].toString());
+                }
+            }
+            writer.write("\r\n");
+            if (++filas % FILAS_POR_ENVIO == 0) {
+                writer.flush();
+            }
+        }
+
+        private void escribirCampo(String valor) throws IOException {
+            // Evitar que una hoja de cálculo interprete como fórmula un texto ingresado por el usuario;
+            // también en CSV, que se abre igualmente con Excel o LibreOffice
+            if (!valor.isEmpty() && "=+-@\t\r".indexOf(valor.charAt(0)) >= 0) {
+                valor = "'" + valor;
+            }
+            boolean entreComillas = valor.indexOf(formato.separador) >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+            if (entreComillas) {
+                writer.write('"');
+                writer.write(valor.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(valor);
+            }
+        }
+
+        /**
+         * Envía lo pendiente y devuelve el número de filas de datos escritas
+         */
+        private long terminar() throws IOException {
+            writer.flush();
+            return filas;
+        }
+    }
+}
@@ -106,6 +106,9 @@ public class HorarioService {
             throw new RuntimeException("El día de la semana debe estar entre 1 (Lunes) y 7 (Domingo)");
         }
         
+        // Validar que el horario empiece y termine en la cuadrícula de citas
+        validarCuadricula(horario);
+        
         // Verificar si hay horarios que se superponen (excluyendo el horario actual)
         List<Horario> horariosExistentes = horarioRepository.findHorariosSuperpuestos(
             horario.getMedico().getId(),
@@ -144,6 +147,9 @@ public class HorarioService {
             throw new RuntimeException("El día de la semana debe estar entre 1 (Lunes) y 7 (Domingo)");
         }
         
+        // Validar que el horario empiece y termine en la cuadrícula de citas
+        validarCuadricula(horario);
+        
         // Verificar que no haya solapamiento con otros horarios del mismo médico (excluyendo el actual)
         List<Horario> horariosExistentes = horarioRepository.findHorariosSuperpuestos(
             horario.getMedico().getId(),
@@ -166,6 +172,18 @@ public class HorarioService {
     
 
     
+    /**
+     * Verifica que la hora de inicio y de fin de un horario coincidan con los intervalos de cita,
+     * de modo que los horarios libres y las reservas usen la misma cuadrícula
+     * @throws RuntimeException si alguna hora no está alineada
+     */
+    private static void validarCuadricula(Horario horario) {
+        if (!CitaService.estaEnCuadricula(horario.getHoraInicio()) || !CitaService.estaEnCuadricula(horario.getHoraFin())) {
+            throw new RuntimeException("La hora de inicio y de fin del horario deben coincidir con intervalos de "
+                                       + CitaService.DURACION_CITA_MINUTOS + " minutos (por ejemplo 08:00 o 08:30)");
+        }
+    }
+    
     /**
      * Obtiene un horario por su ID
      * @param id ID del horario
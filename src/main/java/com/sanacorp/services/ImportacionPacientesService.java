@@ -0,0 +1,487 @@
+package com.sanacorp.services;
+
+import com.sanacorp.repositories.PersonaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio de importación masiva de pacientes desde un archivo CSV
+ * Procesa el archivo por lotes, cada uno en su propia transacción: descarta con una sola consulta IN
+ * los DNI ya registrados e inserta personas y pacientes con lotes JDBC, en lugar de una verificación
+ * y dos save por paciente. Un lote rechazado por la base de datos se reintenta fila por fila para
+ * aislar las filas con error; los lotes ya confirmados no se deshacen.
+ * Acepta el archivo de pacientes generado por ExportacionService (coma o punto y coma, con o sin BOM)
+ */
+@Service
+public class ImportacionPacientesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionPacientesService.class);
+
+    // Número máximo de errores detallados en el reporte; los demás solo se cuentan
+    public static final int MAXIMO_ERRORES_DETALLADOS = 500;
+
+    private static final String SQL_PERSONA =
+        "INSERT INTO personas (dni, nombre, apellido, fecha_nacimiento, genero, telefono, direccion) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // El paciente se vincula con su persona por DNI, sin recuperar las claves generadas del lote anterior
+    private static final String SQL_PACIENTE =
+        "INSERT INTO pacientes (id_persona, seguro_medico) SELECT id, ? FROM personas WHERE dni = ?";
+
+    private static final DateTimeFormatter FORMATO_FECHA_LOCAL = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Nombres de columna aceptados (normalizados) y el campo al que corresponden
+    private static final Map<String, String> COLUMNAS = Map.ofEntries(
+        Map.entry("dni", "dni"),
+        Map.entry("nombre", "nombre"),
+        Map.entry("nombres", "nombre"),
+        Map.entry("apellido", "apellido"),
+        Map.entry("apellidos", "apellido"),
+        Map.entry("fecha_nacimiento", "fecha_nacimiento"),
+        Map.entry("fecha_de_nacimiento", "fecha_nacimiento"),
+        Map.entry("genero", "genero"),
+        Map.entry("sexo", "genero"),
+        Map.entry("telefono", "telefono"),
+        Map.entry("direccion", "direccion"),
+        Map.entry("seguro_medico", "seguro_medico"),
+        Map.entry("seguro", "seguro_medico")
+    );
+
+    private final PersonaRepository personaRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transaccion;
+
+    private final BusquedaPersonaService busquedaPersonaService;
+
+    private final EstadisticasService estadisticasService;
+
+    private final int tamanoLote;
+
+    public ImportacionPacientesService(PersonaRepository personaRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       BusquedaPersonaService busquedaPersonaService,
+                                       EstadisticasService estadisticasService,
+                                       @Value("${sanacorp.importacion.tamano-lote:500}") int tamanoLote) {
+        this.personaRepository = personaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.busquedaPersonaService = busquedaPersonaService;
+        this.estadisticasService = estadisticasService;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Importa los pacientes de un archivo CSV con cabecera
+     * Columnas obligatorias: dni, nombre y apellido; opcionales: fecha_nacimiento (yyyy-MM-dd o dd/MM/yyyy),
+     * genero (M/F), telefono, direccion y seguro_medico. Las demás columnas se ignoran
+     * @param entrada Contenido del archivo en UTF-8; no se cierra
+     * @return Reporte con el número de pacientes importados y las filas rechazadas
+     * @throws RuntimeException si el archivo está vacío o le faltan columnas obligatorias
+     */
+    public ResultadoImportacion importarCsv(InputStream entrada) throws IOException {
+        long inicio = System.currentTimeMillis();
+        ResultadoImportacion resultado = new ResultadoImportacion();
+
+        LectorCsv lector = new LectorCsv(new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)));
+        List<String> cabecera = lector.siguiente();
+        if (cabecera == null) {
+            throw new RuntimeException("El archivo está vacío");
+        }
+        Map<String, Integer> columnas = mapearColumnas(cabecera);
+
+        Set<String> dnisLeidos = new HashSet<>();
+        List<FilaPaciente> lote = new ArrayList<>(tamanoLote);
+        List<String> campos;
+        while ((campos = lector.siguiente()) != null) {
+            if (campos.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            resultado.filasLeidas++;
+            long linea = lector.getLineaRegistro();
+
+            FilaPaciente fila;
+            try {
+                fila = leerFila(campos, columnas, linea);
+            } catch (RuntimeException e) {
+                resultado.registrarError(linea, valor(campos, columnas.get("dni")), e.getMessage());
+                continue;
+            }
+            if (!dnisLeidos.add(fila.dni())) {
+                resultado.registrarError(linea, fila.dni(), "DNI repetido en el archivo");
+                continue;
+            }
+
+            lote.add(fila);
+            if (lote.size() == tamanoLote) {
+                procesarLote(lote, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, resultado);
+        }
+
+        if (resultado.importados > 0) {
+            estadisticasService.invalidar();
+        }
+        resultado.milisegundos = System.currentTimeMillis() - inicio;
+        logger.info("Importación de pacientes terminada: {} filas, {} importados, {} rechazados en {} ms",
+                    resultado.filasLeidas, resultado.importados, resultado.rechazados, resultado.milisegundos);
+        return resultado;
+    }
+
+    /**
+     * Inserta un lote en su propia transacción e indexa los pacientes para la búsqueda una vez confirmado
+     */
+    private void procesarLote(List<FilaPaciente> lote, ResultadoImportacion resultado) {
+        LoteInsertado insertado;
+        try {
+            insertado = transaccion.execute(estado -> insertarLote(lote));
+        } catch (DataAccessException e) {
+            if (lote.size() == 1) {
+                FilaPaciente fila = lote.get(0);
+                resultado.registrarError(fila.linea(), fila.dni(),
+                                         "No se pudo guardar: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            logger.warn("Lote de {} pacientes rechazado, se reintenta fila por fila: {}",
+                        lote.size(), e.getMostSpecificCause().getMessage());
+            for (FilaPaciente fila : lote) {
+                procesarLote(List.of(fila), resultado);
+            }
+            return;
+        }
+
+        for (FilaPaciente fila : lote) {
+            if (insertado.existentes().contains(fila.dni())) {
+                resultado.registrarError(fila.linea(), fila.dni(), "Ya existe una persona registrada con el DNI");
+            }
+        }
+        busquedaPersonaService.indexarTodas(insertado.insertadas());
+        resultado.importados += insertado.insertadas().size();
+        resultado.lotes++;
+        logger.info("Importación de pacientes: {} filas leídas, {} importados, {} rechazados",
+                    resultado.filasLeidas, resultado.importados, resultado.rechazados);
+    }
+
+    private LoteInsertado insertarLote(List<FilaPaciente> lote) {
+        Set<String> existentes = personaRepository.findDnisExistentes(lote.stream().map(FilaPaciente::dni).toList());
+
+        List<FilaPaciente> nuevas = lote.stream().filter(fila -> !existentes.contains(fila.dni())).toList();
+        if (nuevas.isEmpty()) {
+            return new LoteInsertado(existentes, List.of());
+        }
+
+        List<Object[]> personas = new ArrayList<>(nuevas.size());
+        List<Object[]> pacientes = new ArrayList<>(nuevas.size());
+        for (FilaPaciente fila : nuevas) {
+            personas.add(new Object[] {fila.dni(), fila.nombre(), fila.apellido(), fila.fechaNacimiento(),
+                                       fila.genero(), fila.telefono(), fila.direccion()});
+            pacientes.add(new Object[] {fila.seguroMedico(), fila.dni()});
+        }
+        jdbcTemplate.batchUpdate(SQL_PERSONA, personas);
+        jdbcTemplate.batchUpdate(SQL_PACIENTE, pacientes);
+
+        return new LoteInsertado(existentes,
+                                 personaRepository.findParaIndiceByDniIn(nuevas.stream().map(FilaPaciente::dni).toList()));
+    }
+
+    private static Map<String, Integer> mapearColumnas(List<String> cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String nombre = BusquedaPersonaService.normalizar(cabecera.get(i)).replace(' ', '_');
+            String campo = COLUMNAS.get(nombre);
+            if (campo != null) {
+                columnas.putIfAbsent(campo, i);
+            }
+        }
+        if (!columnas.containsKey("dni") || !columnas.containsKey("nombre") || !columnas.containsKey("apellido")) {
+            throw new RuntimeException("La cabecera del archivo debe incluir las columnas dni, nombre y apellido");
+        }
+        return columnas;
+    }
+
+    /**
+     * Valida una fila con las mismas reglas que las entidades Persona y Paciente
+     * @throws RuntimeException con la descripción del primer error encontrado
+     */
+    private static FilaPaciente leerFila(List<String> campos, Map<String, Integer> columnas, long linea) {
+        String dni = valor(campos, columnas.get("dni"));
+        if (dni == null || !dni.matches("\\d{8}")) {
+            throw new RuntimeException("El DNI debe tener 8 dígitos");
+        }
+        String nombre = texto(campos, columnas.get("nombre"), 100, "El nombre", true);
+        String apellido = texto(campos, columnas.get("apellido"), 100, "El apellido", true);
+        String telefono = texto(campos, columnas.get("telefono"), 15, "El teléfono", false);
+        String direccion = texto(campos, columnas.get("direccion"), 255, "La dirección", false);
+        String seguroMedico = texto(campos, columnas.get("seguro_medico"), 50, "El seguro médico", false);
+
+        String genero = valor(campos, columnas.get("genero"));
+        if (genero != null) {
+            genero = genero.toUpperCase(Locale.ROOT);
+            if (!genero.equals("M") && !genero.equals("F")) {
+                throw new RuntimeException("El género debe ser M o F");
+            }
+        }
+
+        return new FilaPaciente(linea, dni, nombre, apellido, fecha(valor(campos, columnas.get("fecha_nacimiento"))),
+                                genero, telefono, direccion, seguroMedico);
+    }
+
+    private static String texto(List<String> campos, Integer columna, int maximo, String descripcion, boolean obligatorio) {
+        String valor = valor(campos, columna);
+        if (valor == null && obligatorio) {
+            throw new RuntimeException(descripcion + " es obligatorio");
+        }
+        if (valor != null && valor.length() > maximo) {
+            throw new RuntimeException(descripcion + " no puede exceder " + maximo + " caracteres");
+        }
+        return valor;
+    }
+
+    private static LocalDate fecha(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        LocalDate fecha;
+        try {
+            fecha = valor.contains("/") ? LocalDate.parse(valor, FORMATO_FECHA_LOCAL) : LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("La fecha de nacimiento no es válida: " + valor);
+        }
+        if (fecha.isAfter(LocalDate.now())) {
+            throw new RuntimeException("La fecha de nacimiento no puede ser futura");
+        }
+        return fecha;
+    }
+
+    /**
+     * Valor recortado de una columna, o null si no existe o está vacío
+     * Quita el apóstrofo que la exportación para Excel antepone a los textos que parecen fórmulas
+     */
+    private static String valor(List<String> campos, Integer columna) {
+        if (columna == null || columna >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(columna).trim();
+        if (valor.length() > 1 && valor.charAt(0) == '\'' && "=+-@".indexOf(valor.charAt(1)) >= 0) {
+            valor = valor.substring(1);
+        }
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private record FilaPaciente(long linea, String dni, String nombre, String apellido, LocalDate fechaNacimiento,
+                                String genero, String telefono, String direccion, String seguroMedico) {
+    }
+
+    private record LoteInsertado(Set<String> existentes, List<PersonaRepository.PersonaIndexable> insertadas) {
+    }
+
+    /**
+     * Reporte de una importación
+     */
+    public static class ResultadoImportacion {
+        private long filasLeidas;
+        private long importados;
+        private long rechazados;
+        private long lotes;
+        private long milisegundos;
+        private final List<ErrorImportacion> errores = new ArrayList<>();
+
+        private void registrarError(long linea, String dni, String mensaje) {
+            rechazados++;
+            if (errores.size() < MAXIMO_ERRORES_DETALLADOS) {
+                errores.add(new ErrorImportacion(linea, dni, mensaje));
+            }
+        }
+
+        public long getFilasLeidas() {
+            return filasLeidas;
+        }
+
+        public long getImportados() {
+            return importados;
+        }
+
+        public long getRechazados() {
+            return rechazados;
+        }
+
+        public long getLotes() {
+            return lotes;
+        }
+
+        public long getMilisegundos() {
+            return milisegundos;
+        }
+
+        /**
+         * Primeros errores encontrados, como máximo MAXIMO_ERRORES_DETALLADOS
+         */
+        public List<ErrorImportacion> getErrores() {
+            return errores;
+        }
+
+        /**
+         * Número de errores que no se detallan por superar MAXIMO_ERRORES_DETALLADOS
+         */
+        public long getErroresNoDetallados() {
+            return rechazados - errores.size();
+        }
+    }
+
+    /**
+     * Fila rechazada de una importación
+     */
+    public static class ErrorImportacion {
+        private final long linea;
+        private final String dni;
+        private final String mensaje;
+
+        public ErrorImportacion(long linea, String dni, String mensaje) {
+            this.linea = linea;
+            this.dni = dni;
+            this.mensaje = mensaje;
+        }
+
+        public long getLinea() {
+            return linea;
+        }
+
+        public String getDni() {
+            return dni;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+    }
+
+    /**
+     * Lector de registros CSV (RFC 4180) con campos entre comillas que pueden contener separadores y saltos de línea
+     * Detecta el separador (coma o punto y coma) en la cabecera y descarta la marca UTF-8 (BOM)
+     */
+    private static final class LectorCsv {
+        private static final int LIMITE_CABECERA = 64 * 1024;
+        private static final int NINGUNO = -2;
+
+        private final BufferedReader reader;
+        private final char separador;
+        private int devuelto = NINGUNO;
+        private long linea = 1;
+        private long lineaRegistro;
+
+        private LectorCsv(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            reader.mark(LIMITE_CABECERA);
+            String cabecera = reader.readLine();
+            reader.reset();
+            if (cabecera != null && cabecera.startsWith("\uFEFF")) {
+                reader.skip(1);
+            }
+            this.separador = cabecera != null && contar(cabecera, ';') > contar(cabecera, ',') ? ';' : ',';
+        }
+
+        /**
+         * Línea del archivo donde empieza el último registro leído
+         */
+        private long getLineaRegistro() {
+            return lineaRegistro;
+        }
+
+        /**
+         * @return Campos del siguiente registro, o null al final del archivo
+         */
+        private List<String> siguiente() throws IOException {
+            int c = leer();
+            if (c == -1) {
+                return null;
+            }
+            lineaRegistro = linea;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreComillas = false;
+
+            while (c != -1) {
+                if (entreComillas) {
+                    if (c == '"') {
+                        int d = leer();
+                        if (d != '"') {
+                            entreComillas = false;
+                            c = d;
+                            continue;
+                        }
+                        campo.append('"');
+                    } else {
+                        if (c == '\n') {
+                            linea++;
+                        }
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0) {
+                    entreComillas = true;
+                } else if (c == separador) {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        int d = leer();
+                        if (d != '\n') {
+                            devuelto = d;
+                        }
+                    }
+                    linea++;
+                    break;
+                } else {
+                    campo.append((char) c);
+                }
+                c = leer();
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+
+        private int leer() throws IOException {
+            if (devuelto != NINGUNO) {
+                int c = devuelto;
+                devuelto = NINGUNO;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private static int contar(String texto, char caracter) {
+            int total = 0;
+            for (int i = 0; i < texto.length(); i++) {
+                if (texto.charAt(i) == caracter) {
+                    total++;
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sanacorp.services;
 
+import com.sanacorp.dto.MedicoResumen;
 import com.sanacorp.models.Medico;
 import com.sanacorp.repositories.MedicoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,7 +8,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -21,6 +25,9 @@ public class MedicoService {
     @Autowired
     private MedicoRepository medicoRepository;
     
+    @Autowired
+    private BusquedaPersonaService busquedaPersonaService;
+    
     /**
      * Obtiene todos los médicos activos con sus especialidades
      * @return Lista de médicos activos con especialidades
@@ -40,6 +47,16 @@ public class MedicoService {
         return medicoRepository.findByEspecialidadId(especialidadId);
     }
     
+    /**
+     * Obtiene los datos resumidos de los médicos de una especialidad
+     * @param especialidadId ID de la especialidad
+     * @return Lista de resúmenes de médicos de la especialidad especificada
+     */
+    @Transactional(readOnly = true)
+    public List<MedicoResumen> getResumenMedicosPorEspecialidad(Long especialidadId) {
+        return medicoRepository.findResumenByEspecialidadId(especialidadId);
+    }
+    
     /**
      * Busca médicos por nombre o apellidos
      * @param texto Texto a buscar
@@ -52,6 +69,29 @@ public class MedicoService {
         return medicoRepository.findByNombreContaining(texto);
     }
     
+    /**
+     * Sugiere médicos para el autocompletado a partir del índice en memoria
+     * Solo consulta la base de datos para obtener la especialidad de los médicos sugeridos
+     * @param texto Texto escrito por el usuario (nombre, apellido o DNI)
+     * @param limite Número máximo de sugerencias
+     * @return Lista de sugerencias ordenadas: primero coincidencias por prefijo
+     */
+    @Transactional(readOnly = true)
+    public List<MedicoResumen> sugerirMedicos(String texto, int limite) {
+        List<Long> ids = busquedaPersonaService.buscarMedicos(texto, limite).stream()
+            .map(BusquedaPersonaService.Resultado::medicoId)
+            .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, MedicoResumen> porId = new HashMap<>();
+        for (MedicoResumen sugerencia : medicoRepository.findResumenByIdIn(ids)) {
+            porId.put(sugerencia.id(), sugerencia);
+        }
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+    
     /**
      * Obtiene médicos disponibles para citas
      * @return Lista de médicos disponibles
@@ -98,7 +138,11 @@ public class MedicoService {
      */
     @Transactional
     public Medico registrarMedico(Medico medico) {
-        return medicoRepository.save(medico);
+        Medico medicoGuardado = medicoRepository.save(medico);
+        if (medicoGuardado.getPersona() != null) {
+            busquedaPersonaService.indexarAlConfirmar(medicoGuardado.getPersona(), null, medicoGuardado.getId());
+        }
+        return medicoGuardado;
     }
     
     /**
@@ -114,7 +158,11 @@ public class MedicoService {
             throw new RuntimeException("El médico no existe");
         }
         
-        return medicoRepository.save(medico);
+        Medico medicoGuardado = medicoRepository.save(medico);
+        if (medicoGuardado.getPersona() != null) {
+            busquedaPersonaService.indexarAlConfirmar(medicoGuardado.getPersona(), null, medicoGuardado.getId());
+        }
+        return medicoGuardado;
     }
     
 
@@ -0,0 +1,175 @@
+package com.sanacorp.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de negocio de Sana Corp expuestas con Micrometer (/actuator/prometheus)
+ * Registra la duración de las operaciones sobre citas, de las consultas de disponibilidad y de la
+ * búsqueda de pacientes, y lleva la cuenta de reservas y de rechazos por conflicto de horario
+ */
+@Service
+public class MetricasService {
+
+    public static final String OPERACION_RESERVAR = "reservar";
+    public static final String OPERACION_CONFIRMAR = "confirmar";
+    public static final String OPERACION_CANCELAR = "cancelar";
+    public static final String OPERACION_COMPLETAR = "completar";
+    public static final String OPERACION_INASISTENCIA = "inasistencia";
+    public static final String OPERACION_TRANSICION_MASIVA = "transicion-masiva";
+
+    public static final String RESULTADO_EXITO = "exito";
+    public static final String RESULTADO_ERROR = "error";
+    public static final String RESULTADO_CONFLICTO = "conflicto";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter reservas;
+
+    private final Counter conflictos;
+
+    private final VentanaUltimoMinuto reservasUltimoMinuto = new VentanaUltimoMinuto();
+
+    private final VentanaUltimoMinuto conflictosUltimoMinuto = new VentanaUltimoMinuto();
+
+    public MetricasService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.reservas = Counter.builder("sanacorp.citas.reservas")
+            .description("Citas reservadas")
+            .register(meterRegistry);
+        this.conflictos = Counter.builder("sanacorp.citas.conflictos")
+            .description("Reservas rechazadas porque el médico ya tiene una cita en ese horario")
+            .register(meterRegistry);
+        Gauge.builder("sanacorp.citas.reservas.ultimo-minuto", reservasUltimoMinuto, VentanaUltimoMinuto::total)
+            .description("Citas reservadas en el último minuto")
+            .register(meterRegistry);
+        Gauge.builder("sanacorp.citas.conflictos.ultimo-minuto", conflictosUltimoMinuto, VentanaUltimoMinuto::total)
+            .description("Reservas rechazadas por conflicto de horario en el último minuto")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Mide una operación sobre citas hasta el fin de la transacción actual, de modo que incluye la escritura
+     * en la base de datos; el resultado es 'exito' si la transacción se confirma y 'error' si se revierte.
+     * Fuera de una transacción no registra nada
+     * @param operacion Nombre de la operación (OPERACION_*)
+     */
+    public void medirOperacionCita(String operacion) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                registrarOperacionCita(operacion, muestra,
+                                       status == STATUS_COMMITTED ? RESULTADO_EXITO : RESULTADO_ERROR);
+            }
+        });
+    }
+
+    /**
+     * Registra la duración de una operación sobre citas ya terminada
+     * @param operacion Nombre de la operación (OPERACION_*)
+     * @param muestra Muestra iniciada al comenzar la operación
+     * @param resultado Resultado de la operación (RESULTADO_*)
+     */
+    public void registrarOperacionCita(String operacion, Timer.Sample muestra, String resultado) {
+        muestra.stop(Timer.builder("sanacorp.citas.operaciones")
+            .description("Duración de las operaciones sobre citas")
+            .tag("operacion", operacion)
+            .tag("resultado", resultado)
+            .register(meterRegistry));
+    }
+
+    /**
+     * Cuenta una cita reservada
+     */
+    public void registrarReserva() {
+        reservas.increment();
+        reservasUltimoMinuto.incrementar();
+    }
+
+    /**
+     * Cuenta una reserva rechazada por conflicto de horario
+     */
+    public void registrarConflicto() {
+        conflictos.increment();
+        conflictosUltimoMinuto.incrementar();
+    }
+
+    /**
+     * Mide una consulta de disponibilidad de médicos
+     * @param consulta Nombre de la consulta
+     * @param accion Consulta a ejecutar
+     * @return Resultado de la consulta
+     */
+    public <T> T medirDisponibilidad(String consulta, Supplier<T> accion) {
+        return medir("sanacorp.disponibilidad.consultas", "Duración de las consultas de disponibilidad de médicos",
+                     consulta, accion);
+    }
+
+    /**
+     * Mide una búsqueda de pacientes
+     * @param busqueda Nombre de la búsqueda
+     * @param accion Búsqueda a ejecutar
+     * @return Resultado de la búsqueda
+     */
+    public <T> T medirBusquedaPacientes(String busqueda, Supplier<T> accion) {
+        return medir("sanacorp.pacientes.busquedas", "Duración de las búsquedas de pacientes", busqueda, accion);
+    }
+
+    private <T> T medir(String nombre, String descripcion, String tipo, Supplier<T> accion) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String resultado = RESULTADO_ERROR;
+        try {
+            T valor = accion.get();
+            resultado = RESULTADO_EXITO;
+            return valor;
+        } finally {
+            muestra.stop(Timer.builder(nombre)
+                .description(descripcion)
+                .tag("tipo", tipo)
+                .tag("resultado", resultado)
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Contador de eventos de los últimos 60 segundos, en casillas de un segundo
+     * Los incrementos concurrentes al cambiar de segundo pueden perderse; basta para un indicador
+     */
+    private static final class VentanaUltimoMinuto {
+        private static final int SEGUNDOS = 60;
+        private final AtomicLongArray conteos = new AtomicLongArray(SEGUNDOS);
+        private final AtomicLongArray segundos = new AtomicLongArray(SEGUNDOS);
+
+        private void incrementar() {
+            long segundo = System.currentTimeMillis() / 1000;
+            int casilla = (int) (segundo % SEGUNDOS);
+            long anterior = segundos.get(casilla);
+            if (anterior != segundo && segundos.compareAndSet(casilla, anterior, segundo)) {
+                conteos.set(casilla, 0);
+            }
+            conteos.incrementAndGet(casilla);
+        }
+
+        private double total() {
+            long desde = System.currentTimeMillis() / 1000 - SEGUNDOS;
+            long total = 0;
+            for (int i = 0; i < SEGUNDOS; i++) {
+                if (segundos.get(i) > desde) {
+                    total += conteos.get(i);
+                }
+            }
+            return total;
+        }
+    }
+}
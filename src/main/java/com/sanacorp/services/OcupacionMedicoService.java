@@ -0,0 +1,266 @@
+package com.sanacorp.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Cita.EstadoCita;
+import com.sanacorp.repositories.CitaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Índice en memoria de ocupación de médicos por día
+ * Mantiene un mapa de bits de intervalos de 30 minutos por médico y fecha para
+ * resolver conflictos de horario sin consultar la base de datos. Las citas nuevas empiezan en la
+ * cuadrícula de 30 minutos (CitaService.estaEnCuadricula), por lo que cada una ocupa exactamente su intervalo;
+ * una cita anterior fuera de la cuadrícula ocupa los dos intervalos que cruza
+ * Las reservas de transacciones aún no confirmadas se registran aparte, de modo que recargar
+ * un día desde la base de datos no las pierde
+ */
+@Service
+public class OcupacionMedicoService {
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    // Duración de cada intervalo del índice en minutos (igual a la duración estándar de una cita)
+    public static final int MINUTOS_POR_INTERVALO = 30;
+
+    // Número de intervalos en un día
+    private static final int INTERVALOS_POR_DIA = 24 * 60 / MINUTOS_POR_INTERVALO;
+
+    // Número máximo de días (médico y fecha) cargados; los menos usados se descartan y se vuelven a leer
+    // de la base de datos. Descartar un día con reservas pendientes es seguro: la reserva se hace bajo
+    // el bloqueo del médico, que se mantiene hasta confirmar, y la recarga ve la cita ya guardada
+    private static final int MAXIMO_DIAS_EN_MEMORIA = 50_000;
+
+    // Estados que ocupan el horario del médico
+    private static final Set<EstadoCita> ESTADOS_ACTIVOS =
+        EnumSet.of(EstadoCita.PROGRAMADA, EstadoCita.CONFIRMADA, EstadoCita.EN_CURSO);
+
+    private final Cache<ClaveOcupacion, Dia> ocupacion = Caffeine.newBuilder()
+        .maximumSize(MAXIMO_DIAS_EN_MEMORIA)
+        .build();
+
+    /**
+     * Indica si un estado de cita ocupa el horario del médico
+     * @param estado Estado de la cita
+     * @return true si el estado bloquea el horario
+     */
+    public static boolean ocupaHorario(EstadoCita estado) {
+        return ESTADOS_ACTIVOS.contains(estado);
+    }
+
+    /**
+     * Reserva de forma atómica el horario de una cita si está libre
+     * Si la transacción actual se revierte, la reserva se libera automáticamente
+     * @param medicoId ID del médico
+     * @param fechaHora Fecha y hora de inicio de la cita
+     * @param duracionMinutos Duración de la cita en minutos
+     * @return true si el horario estaba libre y quedó reservado, false si hay conflicto
+     */
+    @Transactional(readOnly = true)
+    public boolean reservar(Long medicoId, LocalDateTime fechaHora, int duracionMinutos) {
+        Dia dia = getDia(medicoId, fechaHora.toLocalDate());
+        int desde = intervaloInicial(fechaHora);
+        int hasta = intervaloFinal(fechaHora, duracionMinutos);
+        boolean enTransaccion = TransactionSynchronizationManager.isSynchronizationActive();
+
+        synchronized (dia) {
+            int ocupado = dia.ocupados.nextSetBit(desde);
+            if (ocupado >= 0 && ocupado < hasta) {
+                return false;
+            }
+            dia.ocupados.set(desde, hasta);
+            if (enTransaccion) {
+                dia.pendientes.set(desde, hasta);
+            }
+        }
+
+        if (enTransaccion) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    terminarReserva(dia, desde, hasta, status == STATUS_COMMITTED);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Verifica si el horario de una cita está libre según el índice
+     * @param medicoId ID del médico
+     * @param fechaHora Fecha y hora de inicio de la cita
+     * @param duracionMinutos Duración de la cita en minutos
+     * @return true si el médico no tiene citas activas en ese horario
+     */
+    @Transactional(readOnly = true)
+    public boolean estaLibre(Long medicoId, LocalDateTime fechaHora, int duracionMinutos) {
+        Dia dia = getDia(medicoId, fechaHora.toLocalDate());
+        int desde = intervaloInicial(fechaHora);
+        int hasta = intervaloFinal(fechaHora, duracionMinutos);
+
+        synchronized (dia) {
+            int ocupado = dia.ocupados.nextSetBit(desde);
+            return ocupado < 0 || ocupado >= hasta;
+        }
+    }
+
+    /**
+     * Libera el horario de una cita en el índice
+     * Solo actúa si el día ya está cargado; en caso contrario se cargará actualizado desde la base de datos
+     * @param medicoId ID del médico
+     * @param fechaHora Fecha y hora de inicio de la cita
+     * @param duracionMinutos Duración de la cita en minutos
+     */
+    public void liberar(Long medicoId, LocalDateTime fechaHora, int duracionMinutos) {
+        Dia dia = ocupacion.getIfPresent(new ClaveOcupacion(medicoId, fechaHora.toLocalDate()));
+        if (dia == null) {
+            return;
+        }
+        int desde = intervaloInicial(fechaHora);
+        int hasta = intervaloFinal(fechaHora, duracionMinutos);
+        synchronized (dia) {
+            dia.ocupados.clear(desde, hasta);
+            if (dia.confirmadosDuranteCarga != null) {
+                dia.confirmadosDuranteCarga.clear(desde, hasta);
+            }
+        }
+    }
+
+    /**
+     * Vuelve a leer de la base de datos la ocupación de un médico en una fecha, por ejemplo para ver
+     * las citas registradas por otras instancias. Conserva las reservas de transacciones pendientes y
+     * las confirmadas mientras se leía; si el día no está cargado no hace nada, se cargará bajo demanda
+     * @param medicoId ID del médico
+     * @param fecha Fecha a recargar
+     */
+    @Transactional(readOnly = true)
+    public void recargar(Long medicoId, LocalDate fecha) {
+        Dia dia = ocupacion.getIfPresent(new ClaveOcupacion(medicoId, fecha));
+        if (dia == null) {
+            return;
+        }
+
+        synchronized (dia) {
+            if (dia.cargasEnCurso++ == 0) {
+                dia.confirmadosDuranteCarga = new BitSet(INTERVALOS_POR_DIA);
+            }
+        }
+        BitSet cargado = null;
+        try {
+            cargado = leerDia(medicoId, fecha);
+        } finally {
+            synchronized (dia) {
+                if (cargado != null) {
+                    dia.ocupados.clear();
+                    dia.ocupados.or(cargado);
+                    dia.ocupados.or(dia.pendientes);
+                    dia.ocupados.or(dia.confirmadosDuranteCarga);
+                }
+                if (--dia.cargasEnCurso == 0) {
+                    dia.confirmadosDuranteCarga = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta todo el índice; se volverá a cargar bajo demanda
+     * Las reservas pendientes se pierden: solo debe usarse sin reservas en curso, como al cargar datos masivos
+     */
+    public void invalidarTodo() {
+        ocupacion.invalidateAll();
+    }
+
+    /**
+     * Obtiene el mapa de bits del día, cargándolo desde la base de datos si aún no existe
+     * La lectura se hace fuera del mapa para no bloquear a otras claves mientras dura la consulta;
+     * si otro hilo cargó el mismo día antes, se usa el suyo
+     */
+    private Dia getDia(Long medicoId, LocalDate fecha) {
+        ClaveOcupacion clave = new ClaveOcupacion(medicoId, fecha);
+        Dia dia = ocupacion.getIfPresent(clave);
+        if (dia != null) {
+            return dia;
+        }
+
+        Dia cargado = new Dia(leerDia(medicoId, fecha));
+        Dia existente = ocupacion.asMap().putIfAbsent(clave, cargado);
+        return existente != null ? existente : cargado;
+    }
+
+    /**
+     * Cierra una reserva al terminar su transacción: si se confirmó el horario queda ocupado,
+     * si se revirtió se libera
+     */
+    private static void terminarReserva(Dia dia, int desde, int hasta, boolean confirmada) {
+        synchronized (dia) {
+            dia.pendientes.clear(desde, hasta);
+            if (!confirmada) {
+                dia.ocupados.clear(desde, hasta);
+            } else if (dia.confirmadosDuranteCarga != null) {
+                dia.confirmadosDuranteCarga.set(desde, hasta);
+            }
+        }
+    }
+
+    private BitSet leerDia(Long medicoId, LocalDate fecha) {
+        BitSet dia = new BitSet(INTERVALOS_POR_DIA);
+        List<Cita> citas = citaRepository.findByMedicoIdAndFecha(medicoId, fecha);
+        for (Cita cita : citas) {
+            if (ocupaHorario(cita.getEstado())) {
+                dia.set(intervaloInicial(cita.getFechaHora()),
+                        intervaloFinal(cita.getFechaHora(), MINUTOS_POR_INTERVALO));
+            }
+        }
+        return dia;
+    }
+
+    private static int intervaloInicial(LocalDateTime fechaHora) {
+        int minutos = fechaHora.getHour() * 60 + fechaHora.getMinute();
+        return minutos / MINUTOS_POR_INTERVALO;
+    }
+
+    private static int intervaloFinal(LocalDateTime fechaHora, int duracionMinutos) {
+        int minutos = fechaHora.getHour() * 60 + fechaHora.getMinute() + duracionMinutos;
+        int intervalo = (minutos + MINUTOS_POR_INTERVALO - 1) / MINUTOS_POR_INTERVALO;
+        return Math.min(intervalo, INTERVALOS_POR_DIA);
+    }
+
+    /**
+     * Ocupación de un médico en un día; se accede sincronizando sobre la instancia
+     */
+    private static final class Dia {
+        // Intervalos ocupados, incluidas las reservas pendientes
+        private final BitSet ocupados;
+
+        // Intervalos reservados por transacciones que aún no terminan
+        private final BitSet pendientes = new BitSet(INTERVALOS_POR_DIA);
+
+        // Intervalos confirmados durante una recarga, que la lectura pudo no ver
+        private BitSet confirmadosDuranteCarga;
+
+        private int cargasEnCurso;
+
+        private Dia(BitSet ocupados) {
+            this.ocupados = ocupados;
+        }
+    }
+
+    /**
+     * Clave del índice: médico y fecha
+     */
+    private record ClaveOcupacion(Long medicoId, LocalDate fecha) {
+    }
+}
@@ -1,13 +1,22 @@
 package com.sanacorp.services;
 
+import com.sanacorp.dto.PacienteResumen;
+import com.sanacorp.dto.PacienteSugerencia;
 import com.sanacorp.models.Paciente;
 import com.sanacorp.models.Persona;
 import com.sanacorp.repositories.PacienteRepository;
 import com.sanacorp.repositories.PersonaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -24,6 +33,18 @@ public class PacienteService {
     @Autowired
     private PersonaRepository personaRepository;
     
+    @Autowired
+    private BusquedaPersonaService busquedaPersonaService;
+    
+    @Autowired
+    private MetricasService metricasService;
+    
+    // Número máximo de pacientes devueltos por una búsqueda por nombre
+    private static final int LIMITE_BUSQUEDA = 100;
+    
+    // Separador de los campos del cursor de paginación
+    private static final String SEPARADOR_CURSOR = "\u0000";
+    
     /**
      * Registra un nuevo paciente en el sistema
      * @param paciente Datos del paciente a registrar
@@ -44,7 +65,9 @@ public class PacienteService {
         paciente.setPersona(personaGuardada);
         
         // Guardar el paciente
-        return pacienteRepository.save(paciente);
+        Paciente pacienteGuardado = pacienteRepository.save(paciente);
+        busquedaPersonaService.indexarAlConfirmar(personaGuardada, pacienteGuardado.getId(), null);
+        return pacienteGuardado;
     }
     
     /**
@@ -58,16 +81,56 @@ public class PacienteService {
             return pacienteRepository.findAll();
         }
         
-        criterio = criterio.trim();
+        String texto = criterio.trim();
         
         // Si el criterio parece ser un DNI (8 dígitos), buscar por DNI
-        if (criterio.matches("\\d{8}")) {
-            Optional<Paciente> paciente = pacienteRepository.findByPersonaDni(criterio);
-            return paciente.map(List::of).orElse(List.of());
+        if (texto.matches("\\d{8}")) {
+            return metricasService.medirBusquedaPacientes("dni",
+                () -> pacienteRepository.findByPersonaDni(texto).map(List::of).orElse(List.of()));
         }
         
-        // Buscar por nombre o apellidos
-        return pacienteRepository.findByNombreContaining(criterio);
+        // Buscar por nombre o apellidos en el índice en memoria
+        return metricasService.medirBusquedaPacientes("nombre",
+            () -> cargarPacientes(busquedaPersonaService.buscarPacientes(texto, LIMITE_BUSQUEDA)));
+    }
+    
+    /**
+     * Carga los pacientes de los resultados de búsqueda conservando su orden
+     * @param resultados Resultados del índice de búsqueda
+     * @return Lista de pacientes con su persona cargada
+     */
+    private List<Paciente> cargarPacientes(List<BusquedaPersonaService.Resultado> resultados) {
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Long> ids = resultados.stream().map(BusquedaPersonaService.Resultado::pacienteId).toList();
+        Map<Long, Paciente> porId = new HashMap<>();
+        for (Paciente paciente : pacienteRepository.findAllConPersonaByIdIn(ids)) {
+            porId.put(paciente.getId(), paciente);
+        }
+        
+        List<Paciente> pacientes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Paciente paciente = porId.get(id);
+            if (paciente != null) {
+                pacientes.add(paciente);
+            }
+        }
+        return pacientes;
+    }
+    
+    /**
+     * Sugiere pacientes para el autocompletado a partir del índice en memoria, sin consultar la base de datos
+     * @param texto Texto escrito por el usuario (nombre, apellido o DNI)
+     * @param limite Número máximo de sugerencias
+     * @return Lista de sugerencias ordenadas: primero coincidencias por prefijo
+     */
+    public List<PacienteSugerencia> sugerirPacientes(String texto, int limite) {
+        return metricasService.medirBusquedaPacientes("sugerencias",
+            () -> busquedaPersonaService.buscarPacientes(texto, limite).stream()
+                .map(r -> new PacienteSugerencia(r.pacienteId(), r.dni(), r.nombre() + " " + r.apellido()))
+                .toList());
     }
     
     /**
@@ -89,6 +152,57 @@ public class PacienteService {
         return pacienteRepository.findAll();
     }
     
+    /**
+     * Obtiene una página de pacientes ordenados por apellido, nombre e ID de persona mediante paginación por clave
+     * El costo de cada página es constante sin importar cuántos pacientes existan
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera página
+     * @param tamano Número de pacientes por página
+     * @return Página con los pacientes y el cursor de la página siguiente
+     * @throws RuntimeException si el cursor no es válido
+     */
+    @Transactional(readOnly = true)
+    public PaginaPacientes listarPacientesPorPagina(String cursor, int tamano) {
+        // Se pide un registro extra para saber si existe una página siguiente
+        Pageable limite = PageRequest.of(0, tamano + 1);
+        List<Paciente> pacientes;
+        
+        if (cursor == null || cursor.isBlank()) {
+            pacientes = pacienteRepository.findPrimeraPagina(limite);
+        } else {
+            String[] clave = decodificarCursor(cursor);
+            pacientes = pacienteRepository.findPaginaSiguiente(clave[0], clave[1], Long.valueOf(clave[2]), limite);
+        }
+        
+        String siguienteCursor = null;
+        if (pacientes.size() > tamano) {
+            pacientes = pacientes.subList(0, tamano);
+            siguienteCursor = codificarCursor(pacientes.get(tamano - 1));
+        }
+        
+        return new PaginaPacientes(pacientes, siguienteCursor);
+    }
+    
+    private static String codificarCursor(Paciente paciente) {
+        String clave = paciente.getPersona().getApellido() + SEPARADOR_CURSOR +
+                       paciente.getPersona().getNombre() + SEPARADOR_CURSOR +
+                       paciente.getPersona().getIdPersona();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(clave.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decodificarCursor(String cursor) {
+        try {
+            String clave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = clave.split(SEPARADOR_CURSOR, -1);
+            if (partes.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            Long.parseLong(partes[2]);
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("El cursor de paginación no es válido");
+        }
+    }
+    
     /**
      * Actualiza los datos de un paciente existente
      * @param paciente Paciente con los datos actualizados
@@ -103,7 +217,9 @@ public class PacienteService {
         
         // Actualizar la persona asociada
         if (paciente.getPersona() != null) {
-            personaRepository.save(paciente.getPersona());
+            Persona personaGuardada = personaRepository.save(paciente.getPersona());
+            paciente.setPersona(personaGuardada);
+            busquedaPersonaService.indexarAlConfirmar(personaGuardada, paciente.getId(), null);
         }
         
         // Actualizar el paciente
@@ -122,6 +238,16 @@ public class PacienteService {
         return pacienteRepository.findByPersonaDni(dni);
     }
     
+    /**
+     * Obtiene los datos resumidos de un paciente por DNI
+     * @param dni DNI del paciente
+     * @return Optional con el resumen del paciente encontrado
+     */
+    @Transactional(readOnly = true)
+    public Optional<PacienteResumen> buscarResumenPorDni(String dni) {
+        return pacienteRepository.findResumenByDni(dni);
+    }
+    
     /**
      * Obtiene el número total de pacientes
      * @return Número de pacientes
@@ -130,4 +256,29 @@ public class PacienteService {
     public Long contarPacientes() {
         return pacienteRepository.countPacientes();
     }
+    
+    /**
+     * Clase interna para una página de pacientes
+     */
+    public static class PaginaPacientes {
+        private final List<Paciente> pacientes;
+        private final String siguienteCursor;
+        
+        public PaginaPacientes(List<Paciente> pacientes, String siguienteCursor) {
+            this.pacientes = pacientes;
+            this.siguienteCursor = siguienteCursor;
+        }
+        
+        public List<Paciente> getPacientes() {
+            return pacientes;
+        }
+        
+        public String getSiguienteCursor() {
+            return siguienteCursor;
+        }
+        
+        public boolean isHaySiguiente() {
+            return siguienteCursor != null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.sanacorp.config;
+
+import java.util.Map;
+
+/**
+ * Utilidades de prueba para contar las sentencias SQL que emite una acción con ContadorSentencias
+ */
+public final class MedicionSentencias {
+
+    private MedicionSentencias() {
+    }
+
+    /**
+     * Ejecuta una acción contando las sentencias SQL que emite en el hilo actual
+     * @param accion Acción a medir
+     * @return Medición de la acción
+     */
+    public static ContadorSentencias.Medicion medir(Accion accion) throws Exception {
+        if (!ContadorSentencias.iniciar("prueba")) {
+            throw new IllegalStateException("Ya hay una medición de sentencias abierta en el hilo");
+        }
+        ContadorSentencias.Medicion medicion;
+        try {
+            accion.ejecutar();
+        } finally {
+            medicion = ContadorSentencias.terminar();
+        }
+        return medicion;
+    }
+
+    /**
+     * Número de sentencias y sentencias repetidas, para los mensajes de las aserciones
+     */
+    public static String detalle(ContadorSentencias.Medicion medicion) {
+        StringBuilder texto = new StringBuilder().append(medicion.getSentencias()).append(" sentencias");
+        for (Map.Entry<String, Integer> repetida : medicion.getSentenciasRepetidas(2)) {
+            texto.append("\n  ").append(repetida.getValue()).append(" x ").append(repetida.getKey());
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Acción medida por {@link #medir(Accion)}
+     */
+    @FunctionalInterface
+    public interface Accion {
+        void ejecutar() throws Exception;
+    }
+}
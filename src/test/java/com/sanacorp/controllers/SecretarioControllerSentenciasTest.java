@@ -0,0 +1,213 @@
+package com.sanacorp.controllers;
+
+import com.sanacorp.config.ContadorSentencias;
+import com.sanacorp.config.MedicionSentencias;
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Consultorio;
+import com.sanacorp.models.Especialidad;
+import com.sanacorp.models.Medico;
+import com.sanacorp.models.Paciente;
+import com.sanacorp.models.Persona;
+import com.sanacorp.repositories.CitaRepository;
+import com.sanacorp.repositories.ConsultorioRepository;
+import com.sanacorp.repositories.EspecialidadRepository;
+import com.sanacorp.repositories.MedicoRepository;
+import com.sanacorp.repositories.PacienteRepository;
+import com.sanacorp.repositories.PersonaRepository;
+import com.sanacorp.services.BusquedaPersonaService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sentencias SQL del listado de citas y de la búsqueda de pacientes
+ * El número no debe crecer con las filas mostradas; si cambia, revisar si aparece una consulta N+1
+ * antes de actualizarlo. Sin filtros de seguridad: solo se mide el controlador y su vista
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SecretarioControllerSentenciasTest {
+
+    // Lunes lejano, sin otras citas
+    private static final LocalDate FECHA = LocalDate.of(2100, 1, 4);
+
+    private static final int PACIENTES = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EspecialidadRepository especialidadRepository;
+
+    @Autowired
+    private PersonaRepository personaRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private ConsultorioRepository consultorioRepository;
+
+    @Autowired
+    private BusquedaPersonaService busquedaPersonaService;
+
+    private Especialidad especialidad;
+
+    private Consultorio consultorio;
+
+    private final List<Medico> medicos = new ArrayList<>();
+
+    private final List<Paciente> pacientes = new ArrayList<>();
+
+    private final List<Cita> citas = new ArrayList<>();
+
+    @BeforeAll
+    void crearDatos() {
+        especialidad = especialidadRepository.save(new Especialidad("Sentencias", "Prueba de sentencias SQL"));
+        consultorio = consultorioRepository.save(new Consultorio("Sentencias", "Piso 1"));
+        for (int i = 0; i < 2; i++) {
+            Persona persona = personaRepository.save(new Persona("9999992" + i, "Médico" + i, "Sentencias"));
+            medicos.add(medicoRepository.save(new Medico(persona, especialidad)));
+        }
+        for (int i = 0; i < PACIENTES; i++) {
+            Persona persona = personaRepository.save(new Persona("9999991" + i, "Paciente" + i, "Sentencias"));
+            Paciente paciente = pacienteRepository.save(new Paciente(persona));
+            pacientes.add(paciente);
+            busquedaPersonaService.indexar(persona.getIdPersona(), persona.getDni(), persona.getNombre(),
+                                           persona.getApellido(), paciente.getId(), null);
+            citas.add(citaRepository.save(new Cita(FECHA.atTime(8, 0).plusMinutes(30L * i), "Control",
+                                                   paciente, medicos.get(i % 2), consultorio)));
+        }
+    }
+
+    @AfterAll
+    void borrarDatos() {
+        citaRepository.deleteAll(citas);
+        for (Paciente paciente : pacientes) {
+            pacienteRepository.deleteById(paciente.getId());
+            personaRepository.deleteById(paciente.getPersona().getIdPersona());
+        }
+        for (Medico medico : medicos) {
+            medicoRepository.deleteById(medico.getId());
+            personaRepository.deleteById(medico.getPersona().getIdPersona());
+        }
+        especialidadRepository.deleteById(especialidad.getId());
+        consultorioRepository.deleteById(consultorio.getId());
+    }
+
+    @Test
+    void listadoDeCitas() throws Exception {
+        ContadorSentencias.Medicion medicion = MedicionSentencias.medir(() ->
+            mockMvc.perform(get("/secretario/citas").param("fecha", FECHA.toString()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("citas", hasSize(PACIENTES))));
+
+        assertThat(medicion.getSentencias()).as(MedicionSentencias.detalle(medicion)).isEqualTo(1);
+    }
+
+    @Test
+    void busquedaDePacientesPorNombre() throws Exception {
+        // Se resuelve con el índice en memoria
+        ContadorSentencias.Medicion medicion = MedicionSentencias.medir(() ->
+            mockMvc.perform(get("/secretario/api/pacientes/suggest").param("q", "Sentencias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PACIENTES))));
+
+        assertThat(medicion.getSentencias()).as(MedicionSentencias.detalle(medicion)).isZero();
+    }
+
+    @Test
+    void busquedaDePacientePorDni() throws Exception {
+        ContadorSentencias.Medicion medicion = MedicionSentencias.medir(() ->
+            mockMvc.perform(get("/secretario/pacientes/buscar-dni").param("dni", "99999910"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dni").value("99999910")));
+
+        assertThat(medicion.getSentencias()).as(MedicionSentencias.detalle(medicion)).isEqualTo(1);
+    }
+
+    /**
+     * secretario/lista-citas.html usa propiedades que las entidades ya no tienen (apellidoPaterno,
+     * numeroColegiatura...) y no se puede renderizar con filas; esta vista lee las mismas asociaciones
+     * que la plantilla para que la medición incluya las cargas perezosas del renderizado
+     */
+    @TestConfiguration
+    static class VistaListaCitas {
+
+        @Bean
+        ViewResolver vistaListaCitasResolver() {
+            return new OrderedViewResolver();
+        }
+
+        private static final class OrderedViewResolver implements ViewResolver, Ordered {
+
+            @Override
+            public View resolveViewName(String viewName, Locale locale) {
+                return "secretario/lista-citas".equals(viewName) ? new VistaCitas() : null;
+            }
+
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+        }
+
+        private static final class VistaCitas implements View {
+
+            @Override
+            public String getContentType() {
+                return "text/html;charset=UTF-8";
+            }
+
+            @Override
+            public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+                    throws Exception {
+                StringBuilder html = new StringBuilder();
+                for (Object elemento : (List<?>) model.get("citas")) {
+                    Cita cita = (Cita) elemento;
+                    html.append(cita.getPaciente().getPersona().getNombreCompleto())
+                        .append(cita.getPaciente().getPersona().getDni())
+                        .append(cita.getMedico().getPersona().getNombreCompleto())
+                        .append(cita.getMedico().getEspecialidad().getNombre())
+                        .append(cita.getConsultorio().getNombre());
+                }
+                response.setContentType(getContentType());
+                response.getWriter().write(html.toString());
+            }
+        }
+    }
+}
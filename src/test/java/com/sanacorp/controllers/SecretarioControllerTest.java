@@ -0,0 +1,46 @@
+package com.sanacorp.controllers;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+/**
+ * Registro de citas desde el formulario del secretario (sin filtros de seguridad)
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class SecretarioControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @ParameterizedTest
+    @CsvSource({
+        "2100-13-45, 09:00, ''",
+        "2100-01-04, 9h, ''",
+        "2100-01-04, 09:00, mañana"
+    })
+    void fechaHoraInvalidaSeInformaEnElFormulario(String fecha, String hora, String fechaHora) throws Exception {
+        mockMvc.perform(post("/secretario/citas/nueva")
+                .param("pacienteId", "1")
+                .param("medicoId", "1")
+                .param("consultorioId", "1")
+                .param("motivo", "Control")
+                .param("fecha", fecha)
+                .param("hora", hora)
+                .param("fechaHora", fechaHora))
+            .andExpect(status().isOk())
+            .andExpect(view().name("secretario/form-cita"))
+            .andExpect(model().attribute("error", "La fecha u hora de la cita no es válida"));
+    }
+}
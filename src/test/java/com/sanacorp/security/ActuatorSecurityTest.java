@@ -0,0 +1,56 @@
+package com.sanacorp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Acceso a los endpoints de actuator; admin01 es el administrador creado por DataInitializer
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("dev")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthEsPublico() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusSinCredencialesEsRechazado() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheusConCredencialesIncorrectasEsRechazado() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("admin01", "incorrecta")))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheusConAdministradorResponde() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("admin01", "password123")))
+            .andExpect(status().isOk());
+    }
+
+    private static String basic(String usuario, String contrasena) {
+        String credenciales = usuario + ":" + contrasena;
+        return "Basic " + Base64.getEncoder().encodeToString(credenciales.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sanacorp.security;
+
+import com.sanacorp.models.Rol;
+import com.sanacorp.models.Usuario;
+import com.sanacorp.repositories.RolRepository;
+import com.sanacorp.repositories.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Invalidación de la caché de autenticación al modificar el usuario admin01 de DataInitializer
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class UsuarioCacheListenerTest {
+
+    private static final String USUARIO = "admin01";
+
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void cachearUsuario() {
+        usuarioCache.putUserInCache(customUserDetailsService.loadUserByUsername(USUARIO));
+        assertThat(usuarioCache.getUserFromCache(USUARIO)).isNotNull();
+    }
+
+    @Test
+    void cambiarSoloLosRolesInvalidaLaCache() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Rol rol = rolRepository.findByNombre("Secretario")
+                .orElseGet(() -> rolRepository.save(new Rol("Secretario", "Gestión de citas")));
+            Usuario usuario = usuarioRepository.findByUsername(USUARIO).orElseThrow();
+            if (usuario.hasRole(rol.getNombre())) {
+                usuario.removeRol(rol);
+            } else {
+                usuario.addRol(rol);
+            }
+        });
+
+        assertThat(usuarioCache.getUserFromCache(USUARIO)).isNull();
+    }
+
+    @Test
+    void cambiarElEstadoInvalidaLaCache() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Usuario usuario = usuarioRepository.findByUsername(USUARIO).orElseThrow();
+            usuario.setEstado(0);
+        });
+        transactionTemplate.executeWithoutResult(status ->
+            usuarioRepository.findByUsername(USUARIO).orElseThrow().setEstado(1));
+
+        assertThat(usuarioCache.getUserFromCache(USUARIO)).isNull();
+    }
+}
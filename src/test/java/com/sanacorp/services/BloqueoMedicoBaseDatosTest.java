@@ -0,0 +1,97 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Especialidad;
+import com.sanacorp.models.Medico;
+import com.sanacorp.models.Persona;
+import com.sanacorp.repositories.EspecialidadRepository;
+import com.sanacorp.repositories.MedicoRepository;
+import com.sanacorp.repositories.PersonaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bloqueo por médico en la base de datos: una segunda reserva del mismo médico espera y luego falla
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "sanacorp.citas.bloqueo.tipo=bd",
+    "sanacorp.citas.bloqueo.espera-ms=500"
+})
+@ActiveProfiles("dev")
+class BloqueoMedicoBaseDatosTest {
+
+    @Autowired
+    private BloqueoMedico bloqueoMedico;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PersonaRepository personaRepository;
+
+    @Autowired
+    private EspecialidadRepository especialidadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Medico medico;
+
+    @BeforeEach
+    void crearMedico() {
+        Especialidad especialidad = especialidadRepository.save(new Especialidad("Bloqueo", "Prueba de bloqueo"));
+        Persona persona = personaRepository.save(new Persona("99999902", "Médico", "Bloqueo"));
+        medico = medicoRepository.save(new Medico(persona, especialidad));
+    }
+
+    @AfterEach
+    void borrarMedico() {
+        medicoRepository.deleteById(medico.getId());
+        personaRepository.deleteById(medico.getPersona().getIdPersona());
+        especialidadRepository.deleteById(medico.getEspecialidad().getId());
+    }
+
+    @Test
+    void medicoBloqueadoPorOtraTransaccionFallaTrasLaEspera() throws Exception {
+        CountDownLatch bloqueado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> otraReserva = CompletableFuture.runAsync(() ->
+            transactionTemplate.executeWithoutResult(status -> {
+                bloqueoMedico.bloquearHastaFinTransaccion(medico.getId());
+                bloqueado.countDown();
+                try {
+                    liberar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        try {
+            assertThat(bloqueado.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                    bloqueoMedico.bloquearHastaFinTransaccion(medico.getId())))
+                .hasMessageContaining("está siendo reservado por otro usuario");
+        } finally {
+            liberar.countDown();
+            otraReserva.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void medicoInexistenteSeInforma() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                bloqueoMedico.bloquearHastaFinTransaccion(-1L)))
+            .hasMessage("El médico seleccionado no existe");
+    }
+}
@@ -0,0 +1,41 @@
+package com.sanacorp.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Índice de búsqueda de personas en memoria (sin base de datos)
+ */
+class BusquedaPersonaServiceTest {
+
+    private final BusquedaPersonaService servicio = new BusquedaPersonaService();
+
+    @Test
+    void reindexarReemplazaLosTerminosAnteriores() {
+        servicio.indexar(1L, "12345678", "Ana", "Pérez", 10L, null);
+        servicio.indexar(1L, "87654321", "María", "López", null, null);
+
+        assertThat(servicio.buscarPacientes("perez", 10)).isEmpty();
+        assertThat(servicio.buscarPacientes("1234", 10)).isEmpty();
+        assertThat(servicio.buscarPacientes("maria lopez", 10))
+            .singleElement()
+            .satisfies(r -> {
+                assertThat(r.idPersona()).isEqualTo(1L);
+                assertThat(r.pacienteId()).isEqualTo(10L);
+                assertThat(r.dni()).isEqualTo("87654321");
+            });
+    }
+
+    @Test
+    void reindexarVariasVecesNoDuplicaResultados() {
+        for (int i = 0; i < 5; i++) {
+            servicio.indexar(1L, "12345678", i % 2 == 0 ? "Ana" : "Ana María", "Ana", 10L, null);
+        }
+        servicio.indexar(2L, "22222222", "Anabel", "Ruiz", 20L, null);
+
+        assertThat(servicio.buscarPacientes("ana", 10))
+            .extracting(BusquedaPersonaService.Resultado::idPersona)
+            .containsExactlyInAnyOrder(1L, 2L);
+    }
+}
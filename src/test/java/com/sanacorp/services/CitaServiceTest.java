@@ -0,0 +1,48 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Medico;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Las reservas solo aceptan horas de la cuadrícula de citas, en las que slot_activo identifica la cita completa
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class CitaServiceTest {
+
+    // 10:15 solaparía con una cita de las 10:30 sin compartir su intervalo
+    private static final LocalDateTime FUERA_DE_CUADRICULA = LocalDateTime.of(2100, 1, 4, 10, 15);
+
+    @Autowired
+    private CitaService citaService;
+
+    @Test
+    void registrarRechazaHorasFueraDeLaCuadricula() {
+        assertThatThrownBy(() -> citaService.registrarNuevaCita(cita(FUERA_DE_CUADRICULA)))
+            .hasMessageContaining("intervalo de 30 minutos");
+    }
+
+    @Test
+    void reservaOptimistaRechazaHorasFueraDeLaCuadricula() {
+        assertThatThrownBy(() -> citaService.reservarCitaOptimista(cita(FUERA_DE_CUADRICULA), true))
+            .hasMessageContaining("intervalo de 30 minutos");
+    }
+
+    @Test
+    void registrarRechazaSegundos() {
+        assertThatThrownBy(() -> citaService.registrarNuevaCita(cita(LocalDateTime.of(2100, 1, 4, 10, 30, 5))))
+            .hasMessageContaining("intervalo de 30 minutos");
+    }
+
+    private static Cita cita(LocalDateTime fechaHora) {
+        return new Cita(fechaHora, "Control", null, new Medico(), null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.sanacorp.services;
+
+import com.sanacorp.dto.HorarioLibre;
+import com.sanacorp.models.Especialidad;
+import com.sanacorp.models.Horario;
+import com.sanacorp.models.Medico;
+import com.sanacorp.models.Persona;
+import com.sanacorp.repositories.EspecialidadRepository;
+import com.sanacorp.repositories.HorarioRepository;
+import com.sanacorp.repositories.MedicoRepository;
+import com.sanacorp.repositories.PersonaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primeros horarios libres de una especialidad con horarios anteriores a la cuadrícula de citas,
+ * guardados sin pasar por HorarioService: los resultados deben poder reservarse
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class DisponibilidadServicePrimerosHorariosTest {
+
+    // Lunes lejano, sin otras citas
+    private static final LocalDate LUNES = LocalDate.of(2100, 1, 4);
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private OcupacionMedicoService ocupacionMedicoService;
+
+    @Autowired
+    private EspecialidadRepository especialidadRepository;
+
+    @Autowired
+    private PersonaRepository personaRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    private Especialidad especialidad;
+
+    private final List<Medico> medicos = new ArrayList<>();
+
+    private final List<Horario> horarios = new ArrayList<>();
+
+    @BeforeEach
+    void crearMedicos() {
+        especialidad = especialidadRepository.save(new Especialidad("Cuadrícula", "Prueba de horarios libres"));
+        LocalTime[][] turnos = {{LocalTime.of(8, 15), LocalTime.of(9, 45)}, {LocalTime.of(8, 40), LocalTime.of(10, 0)}};
+        for (int i = 0; i < turnos.length; i++) {
+            Persona persona = personaRepository.save(new Persona("9999993" + i, "Médico" + i, "Cuadrícula"));
+            Medico medico = medicoRepository.save(new Medico(persona, especialidad));
+            medicos.add(medico);
+            horarios.add(horarioRepository.save(new Horario(1, turnos[i][0], turnos[i][1], medico)));
+        }
+    }
+
+    @AfterEach
+    void borrarMedicos() {
+        horarioRepository.deleteAll(horarios);
+        for (Medico medico : medicos) {
+            medicoRepository.deleteById(medico.getId());
+            personaRepository.deleteById(medico.getPersona().getIdPersona());
+        }
+        especialidadRepository.deleteById(especialidad.getId());
+    }
+
+    @Test
+    void primerosHorariosEstanEnLaCuadriculaYLibresEnElIndice() {
+        List<HorarioLibre> libres = disponibilidadService.buscarPrimerosHorariosLibres(
+            especialidad.getId(), LUNES.atStartOfDay(), LUNES.plusDays(1).atStartOfDay(), 10);
+
+        assertThat(libres).extracting(h -> h.fechaHora().toLocalTime()).containsExactly(
+            LocalTime.of(8, 30), LocalTime.of(9, 0), LocalTime.of(9, 0), LocalTime.of(9, 30));
+        for (HorarioLibre libre : libres) {
+            assertThat(CitaService.estaEnCuadricula(libre.fechaHora().toLocalTime())).isTrue();
+            assertThat(ocupacionMedicoService.estaLibre(libre.medicoId(), libre.fechaHora(),
+                                                        CitaService.DURACION_CITA_MINUTOS)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Cita;
+import com.sanacorp.models.Horario;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cálculo de intervalos libres de un médico (sin base de datos)
+ */
+class DisponibilidadServiceTest {
+
+    // Lunes, lejos de cualquier fecha actual para que no se descarten intervalos pasados
+    private static final LocalDate LUNES = LocalDate.of(2100, 1, 4);
+    private static final LocalDateTime AHORA = LUNES.minusDays(1).atStartOfDay();
+
+    @Test
+    void horariosSolapadosNoRepitenIntervalosNiOcultanCitas() {
+        List<Horario> horarios = List.of(
+            new Horario(1, LocalTime.of(8, 0), LocalTime.of(10, 0), null),
+            new Horario(1, LocalTime.of(9, 0), LocalTime.of(11, 0), null));
+        List<Cita> citas = List.of(cita(LUNES.atTime(8, 0)), cita(LUNES.atTime(9, 30)));
+
+        List<LocalDateTime> libres = DisponibilidadService.calcularHorariosLibres(horarios, citas, LUNES, LUNES, AHORA);
+
+        assertThat(libres).containsExactly(
+            LUNES.atTime(8, 30), LUNES.atTime(9, 0), LUNES.atTime(10, 0), LUNES.atTime(10, 30));
+    }
+
+    @Test
+    void citaFueraDeLaCuadriculaOcupaLosIntervalosQueCruza() {
+        List<Horario> horarios = List.of(new Horario(1, LocalTime.of(8, 0), LocalTime.of(10, 0), null));
+        List<Cita> citas = List.of(cita(LUNES.atTime(8, 45)));
+
+        List<LocalDateTime> libres = DisponibilidadService.calcularHorariosLibres(horarios, citas, LUNES, LUNES, AHORA);
+
+        assertThat(libres).containsExactly(LUNES.atTime(8, 0), LUNES.atTime(9, 30));
+    }
+
+    @Test
+    void horarioFueraDeLaCuadriculaSeAlineaAlSiguienteIntervalo() {
+        List<Horario> horarios = List.of(
+            new Horario(1, LocalTime.of(8, 15), LocalTime.of(9, 45), null),
+            new Horario(1, LocalTime.of(9, 0), LocalTime.of(11, 0), null));
+
+        List<LocalDateTime> libres = DisponibilidadService.calcularHorariosLibres(horarios, List.of(), LUNES, LUNES, AHORA);
+
+        assertThat(libres).containsExactly(
+            LUNES.atTime(8, 30), LUNES.atTime(9, 0), LUNES.atTime(10, 0), LUNES.atTime(10, 30));
+    }
+
+    private static Cita cita(LocalDateTime fechaHora) {
+        return new Cita(fechaHora, null, null, null, null);
+    }
+}
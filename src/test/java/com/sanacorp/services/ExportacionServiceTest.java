@@ -0,0 +1,57 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Paciente;
+import com.sanacorp.models.Persona;
+import com.sanacorp.repositories.PacienteRepository;
+import com.sanacorp.repositories.PersonaRepository;
+import com.sanacorp.services.ExportacionService.FormatoExportacion;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exportación de pacientes: los textos que una hoja de cálculo tomaría como fórmula se escriben como texto
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+@Transactional
+class ExportacionServiceTest {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private PersonaRepository personaRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @ParameterizedTest
+    @EnumSource(FormatoExportacion.class)
+    void camposQueEmpiezanComoFormulaSeExportanComoTexto(FormatoExportacion formato) throws Exception {
+        Persona persona = new Persona("99999901", "=HYPERLINK(\"http://x\")", "-2+3");
+        persona.setDireccion("\t@SUMA(A1)");
+        persona.setTelefono("+51999");
+        personaRepository.save(persona);
+        pacienteRepository.save(new Paciente(persona, "\r=1"));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportacionService.exportarPacientes(formato, salida);
+        String contenido = salida.toString(StandardCharsets.UTF_8);
+
+        assertThat(contenido)
+            .contains("\"'=HYPERLINK(\"\"http://x\"\")\"")
+            .contains("'-2+3")
+            .contains("'+51999")
+            .contains("'\t@SUMA(A1)")
+            .contains("\"'\r=1\"");
+    }
+}
@@ -0,0 +1,31 @@
+package com.sanacorp.services;
+
+import com.sanacorp.models.Horario;
+import com.sanacorp.models.Medico;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Los horarios empiezan y terminan en la cuadrícula de citas
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class HorarioServiceTest {
+
+    @Autowired
+    private HorarioService horarioService;
+
+    @ParameterizedTest
+    @CsvSource({"08:15, 12:00", "08:00, 12:45", "08:00:30, 12:00"})
+    void registrarRechazaHorasFueraDeLaCuadricula(LocalTime inicio, LocalTime fin) {
+        assertThatThrownBy(() -> horarioService.registrarHorario(new Horario(1, inicio, fin, new Medico())))
+            .hasMessageContaining("intervalos de 30 minutos");
+    }
+}
@@ -0,0 +1,39 @@
+package com.sanacorp.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Índice de ocupación con citas en la cuadrícula de 30 minutos (médico sin citas en la base de datos)
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class OcupacionMedicoServiceTest {
+
+    private static final Long MEDICO = -10L;
+
+    private static final LocalDateTime DIEZ = LocalDateTime.of(2100, 1, 4, 10, 0);
+
+    @Autowired
+    private OcupacionMedicoService ocupacionMedicoService;
+
+    @Test
+    void unaCitaOcupaSoloSuIntervalo() {
+        int duracion = CitaService.DURACION_CITA_MINUTOS;
+
+        assertThat(ocupacionMedicoService.reservar(MEDICO, DIEZ, duracion)).isTrue();
+
+        assertThat(ocupacionMedicoService.reservar(MEDICO, DIEZ, duracion)).isFalse();
+        assertThat(ocupacionMedicoService.estaLibre(MEDICO, DIEZ.minusMinutes(duracion), duracion)).isTrue();
+        assertThat(ocupacionMedicoService.estaLibre(MEDICO, DIEZ.plusMinutes(duracion), duracion)).isTrue();
+
+        ocupacionMedicoService.liberar(MEDICO, DIEZ, duracion);
+        assertThat(ocupacionMedicoService.estaLibre(MEDICO, DIEZ, duracion)).isTrue();
+    }
+}